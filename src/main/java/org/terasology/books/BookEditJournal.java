@@ -0,0 +1,380 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Remembers the edits made to a book, so that they can be undone and redone.
+ * <br>
+ * Edits of a page are stored as the changed part of the page only: the text between the common beginning and the
+ * common end of the old and new text. Only deleted pages are stored completely. The journal counts the characters it
+ * holds and forgets the oldest edits once it grows beyond its limit.
+ * This class is not thread-safe and is meant to be accessed from the UI thread only.
+ */
+public class BookEditJournal {
+    /* Rough number of characters an edit takes up besides its text */
+    private static final int ENTRY_OVERHEAD = 16;
+
+    private final Deque<Entry> undoEntries = new ArrayDeque<>();
+    private final Deque<Entry> redoEntries = new ArrayDeque<>();
+    private int maxSize;
+    private long size;
+    /* Edits made while an edit is undone or redone are part of that edit, not new ones */
+    private boolean replaying;
+    /* The edits recorded since startGroup(), or null */
+    private List<Entry> group;
+
+    /**
+     * Applies the edits which are undone or redone to the book. Every method reports whether it could be applied,
+     * e.g. a page of a streamed book which has not been received yet cannot be changed.
+     */
+    public interface Editor {
+        /**
+         * @return The text of the page, or null if it is not available.
+         */
+        String getPage(int page);
+
+        boolean setPage(int page, String text);
+
+        boolean insertSpread(int page);
+
+        boolean deleteSpread(int page);
+    }
+
+    /**
+     * Creates a new journal.
+     *
+     * @param maxSize The maximum number of characters kept, see {@link #setMaxSize(int)}.
+     */
+    public BookEditJournal(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Sets how many characters of edits are kept. The oldest edits are forgotten first.
+     *
+     * @param maxSize The maximum number of characters, roughly half the number of bytes used.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Starts recording edits which are undone and redone together, e.g. a page and the pages its text flowed into.
+     */
+    public void startGroup() {
+        if (group == null && !replaying) {
+            group = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Stops recording the edits started by {@link #startGroup()}.
+     */
+    public void endGroup() {
+        List<Entry> entries = group;
+        group = null;
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        add(entries.size() == 1 ? entries.get(0) : new GroupEntry(entries));
+    }
+
+    /**
+     * Records that the text of a page was replaced.
+     */
+    public void recordSetPage(int page, String oldText, String newText) {
+        int prefix = 0;
+        int maxPrefix = Math.min(oldText.length(), newText.length());
+        while (prefix < maxPrefix && oldText.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        int maxSuffix = maxPrefix - prefix;
+        while (suffix < maxSuffix
+                && oldText.charAt(oldText.length() - 1 - suffix) == newText.charAt(newText.length() - 1 - suffix)) {
+            suffix++;
+        }
+        record(new SetPageEntry(page, prefix, oldText.substring(prefix, oldText.length() - suffix),
+                newText.substring(prefix, newText.length() - suffix)));
+    }
+
+    /**
+     * Records that two empty pages were inserted.
+     */
+    public void recordInsertSpread(int page) {
+        record(new InsertSpreadEntry(page));
+    }
+
+    /**
+     * Records that two pages were deleted, keeping their text.
+     */
+    public void recordDeleteSpread(int page, String first, String second) {
+        record(new DeleteSpreadEntry(page, first, second));
+    }
+
+    public boolean canUndo() {
+        return !undoEntries.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoEntries.isEmpty();
+    }
+
+    /**
+     * Undoes the latest edit which has not been undone yet.
+     * <br>
+     * If the editor cannot apply the edit, all edits are forgotten, as the offsets of the remaining ones would no
+     * longer match the book. The book may have been changed partly in that case.
+     *
+     * @param editor Applies the edits to the book.
+     * @return False if there was nothing to undo, or the edit could not be undone.
+     */
+    public boolean undo(Editor editor) {
+        Entry entry = undoEntries.peekLast();
+        if (entry == null) {
+            return false;
+        }
+        if (!replay(() -> entry.undo(editor))) {
+            clear();
+            return false;
+        }
+        redoEntries.addLast(undoEntries.pollLast());
+        return true;
+    }
+
+    /**
+     * Redoes the latest undone edit. If the editor cannot apply the edit, all edits are forgotten, see {@link #undo}.
+     *
+     * @param editor Applies the edits to the book.
+     * @return False if there was nothing to redo, or the edit could not be redone.
+     */
+    public boolean redo(Editor editor) {
+        Entry entry = redoEntries.peekLast();
+        if (entry == null) {
+            return false;
+        }
+        if (!replay(() -> entry.redo(editor))) {
+            clear();
+            return false;
+        }
+        undoEntries.addLast(redoEntries.pollLast());
+        return true;
+    }
+
+    /**
+     * Forgets all edits, e.g. when another book is opened.
+     */
+    public void clear() {
+        undoEntries.clear();
+        redoEntries.clear();
+        size = 0;
+        group = null;
+    }
+
+    /**
+     * @return The number of characters currently kept.
+     */
+    public long size() {
+        return size;
+    }
+
+    private boolean replay(BooleanSupplier edit) {
+        replaying = true;
+        try {
+            return edit.getAsBoolean();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    private void record(Entry entry) {
+        if (replaying) {
+            return;
+        }
+        if (group != null) {
+            group.add(entry);
+        } else {
+            add(entry);
+        }
+    }
+
+    private void add(Entry entry) {
+        for (Entry redoEntry : redoEntries) {
+            size -= redoEntry.size();
+        }
+        redoEntries.clear();
+        undoEntries.addLast(entry);
+        size += entry.size();
+        evict();
+    }
+
+    private void evict() {
+        while (size > maxSize && !undoEntries.isEmpty()) {
+            size -= undoEntries.pollFirst().size();
+        }
+        while (size > maxSize && !redoEntries.isEmpty()) {
+            size -= redoEntries.pollFirst().size();
+        }
+    }
+
+    /**
+     * A single edit which can be undone and redone.
+     */
+    private abstract static class Entry {
+        /**
+         * @return False if the editor could not apply the edit.
+         */
+        abstract boolean undo(Editor editor);
+
+        /**
+         * @return False if the editor could not apply the edit.
+         */
+        abstract boolean redo(Editor editor);
+
+        /**
+         * @return The number of characters this edit takes up.
+         */
+        abstract int size();
+    }
+
+    /**
+     * Replaces the text between a common beginning and end of a page.
+     */
+    private static final class SetPageEntry extends Entry {
+        private final int page;
+        private final int prefix;
+        private final String oldMiddle;
+        private final String newMiddle;
+
+        SetPageEntry(int page, int prefix, String oldMiddle, String newMiddle) {
+            this.page = page;
+            this.prefix = prefix;
+            this.oldMiddle = oldMiddle;
+            this.newMiddle = newMiddle;
+        }
+
+        @Override
+        boolean undo(Editor editor) {
+            return replace(editor, newMiddle, oldMiddle);
+        }
+
+        @Override
+        boolean redo(Editor editor) {
+            return replace(editor, oldMiddle, newMiddle);
+        }
+
+        private boolean replace(Editor editor, String from, String to) {
+            String text = editor.getPage(page);
+            if (text == null || !text.startsWith(from, prefix)) {
+                return false;
+            }
+            return editor.setPage(page, text.substring(0, prefix) + to + text.substring(prefix + from.length()));
+        }
+
+        @Override
+        int size() {
+            return ENTRY_OVERHEAD + oldMiddle.length() + newMiddle.length();
+        }
+    }
+
+    private static final class InsertSpreadEntry extends Entry {
+        private final int page;
+
+        InsertSpreadEntry(int page) {
+            this.page = page;
+        }
+
+        @Override
+        boolean undo(Editor editor) {
+            return editor.deleteSpread(page);
+        }
+
+        @Override
+        boolean redo(Editor editor) {
+            return editor.insertSpread(page);
+        }
+
+        @Override
+        int size() {
+            return ENTRY_OVERHEAD;
+        }
+    }
+
+    private static final class DeleteSpreadEntry extends Entry {
+        private final int page;
+        private final String first;
+        private final String second;
+
+        DeleteSpreadEntry(int page, String first, String second) {
+            this.page = page;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        boolean undo(Editor editor) {
+            return editor.insertSpread(page) && editor.setPage(page, first) && editor.setPage(page + 1, second);
+        }
+
+        @Override
+        boolean redo(Editor editor) {
+            return editor.deleteSpread(page);
+        }
+
+        @Override
+        int size() {
+            return ENTRY_OVERHEAD + first.length() + second.length();
+        }
+    }
+
+    /**
+     * Edits which are undone and redone together.
+     */
+    private static final class GroupEntry extends Entry {
+        private final List<Entry> entries;
+
+        GroupEntry(List<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        boolean undo(Editor editor) {
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (!entries.get(i).undo(editor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean redo(Editor editor) {
+            for (Entry entry : entries) {
+                if (!entry.redo(editor)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int size() {
+            int size = 0;
+            for (Entry entry : entries) {
+                size += entry.size();
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Module-wide histograms of how long reading and editing books takes, and how large the pages are.
+ * <br>
+ * Values are counted in buckets of powers of two, so recording a value is a few arithmetic operations and percentiles
+ * are exact to within a factor of two. While disabled, which is the default, {@link #start()} does not even read the
+ * clock and nothing is recorded. This class is thread-safe, as pages are also parsed on a worker thread.
+ */
+public final class BookMetrics {
+    private static final int BUCKETS = 64;
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    /**
+     * The measured operations and values.
+     */
+    public enum Metric {
+        OPEN_BOOK("open book", true),
+        UPDATE_PAGE("update page", true),
+        PARSE_PAGE("parse page", true),
+        NAVIGATE("navigate", true),
+        SAVE("save", true),
+        RECIPE_ICONS("recipe icons", true),
+        PAGE_LENGTH("page length", false);
+
+        private final String displayName;
+        private final boolean time;
+
+        Metric(String displayName, boolean time) {
+            this.displayName = displayName;
+            this.time = time;
+        }
+    }
+
+    private static final Map<Metric, Histogram> HISTOGRAMS = new EnumMap<>(Metric.class);
+    private static volatile boolean enabled;
+
+    static {
+        for (Metric metric : Metric.values()) {
+            HISTOGRAMS.put(metric, new Histogram());
+        }
+    }
+
+    private BookMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off. The values recorded so far are kept.
+     */
+    public static void setEnabled(boolean enabled) {
+        BookMetrics.enabled = enabled;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return The start time to pass to {@link #stop(Metric, long)}, or 0 if recording is disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records how long an operation took.
+     *
+     * @param metric The operation.
+     * @param start The value returned by {@link #start()} when the operation started.
+     */
+    public static void stop(Metric metric, long start) {
+        if (start != 0 && enabled) {
+            HISTOGRAMS.get(metric).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a value which is not a duration, such as the length of a page.
+     */
+    public static void record(Metric metric, long value) {
+        if (enabled) {
+            HISTOGRAMS.get(metric).record(value);
+        }
+    }
+
+    /**
+     * Drops all recorded values.
+     */
+    public static void reset() {
+        for (Histogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Describes all recorded values, one line per metric, with durations in milliseconds.
+     *
+     * @return The count, percentiles and maximum of every metric.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            HISTOGRAMS.get(metric).describe(metric, report);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Counts values in buckets of powers of two.
+     */
+    private static final class Histogram {
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long max;
+
+        synchronized void record(long value) {
+            long positive = Math.max(0, value);
+            // Bucket b holds the values from 2^b to 2^(b+1) - 1, bucket 0 also holds 0
+            counts[positive == 0 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(positive)]++;
+            count++;
+            max = Math.max(max, positive);
+        }
+
+        synchronized void reset() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            max = 0;
+        }
+
+        synchronized void describe(Metric metric, StringBuilder report) {
+            report.append(metric.displayName).append(": ").append(count);
+            if (count > 0) {
+                for (double percentile : PERCENTILES) {
+                    report.append(", p").append(Math.round(percentile * 100)).append(" <= ")
+                            .append(format(metric, getPercentileBound(percentile)));
+                }
+                report.append(", max ").append(format(metric, max));
+            }
+            report.append('\n');
+        }
+
+        /* The upper bound of the bucket containing the percentile */
+        private long getPercentileBound(double percentile) {
+            long rank = (long) Math.ceil(percentile * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return bucket >= BUCKETS - 2 ? max : Math.min(max, (2L << bucket) - 1);
+                }
+            }
+            return max;
+        }
+
+        private static String format(Metric metric, long value) {
+            if (metric.time) {
+                return String.format("%.3f ms", value / 1_000_000.0);
+            }
+            return Long.toString(value);
+        }
+    }
+}
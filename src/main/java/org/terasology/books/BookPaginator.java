@@ -0,0 +1,343 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.terasology.nui.asset.font.Font;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Splits text into pages which fit the page of a book, measuring the text with the font it is displayed with.
+ * <br>
+ * The pages are consecutive pieces of the text. Pages are only broken at the start of a line: text is wrapped at
+ * spaces, or within words longer than a line, and recipes and chapter titles are never split. Formatting tags which
+ * are open where a page is broken are closed at the end of the page and opened again at the start of the next one,
+ * as every page is displayed on its own. The line breaks of every paragraph are cached by its text, so paginating a
+ * long text again after an edit only measures the paragraphs which changed, and a reflow after an edit only reads the
+ * pages it reaches.
+ * This class is not thread-safe and is meant to be accessed from the game thread only.
+ */
+public class BookPaginator {
+    private static final int LINE_CACHE_CAPACITY = 4096;
+    /* Joins the pages of a book in reflow(), so that the end of a page stays the end of a line */
+    private static final char PAGE_SEPARATOR = '\n';
+
+    private final Font font;
+    private final int pageWidth;
+    private final int pageHeight;
+    private final Map<String, int[]> lineStartsByParagraph = new LinkedHashMap<String, int[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > LINE_CACHE_CAPACITY;
+        }
+    };
+
+    /**
+     * Creates a new paginator.
+     *
+     * @param font The font the text of the pages is displayed with.
+     * @param pageWidth The width of the text area of a page.
+     * @param pageHeight The height of the text area of a page.
+     */
+    public BookPaginator(Font font, int pageWidth, int pageHeight) {
+        this.font = font;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+    }
+
+    /**
+     * Splits a text into pages. The number of pages is always even, so the last page may be empty.
+     *
+     * @param text The text to split.
+     * @return The pages.
+     */
+    public List<String> paginate(String text) {
+        List<String> pages = new ArrayList<>();
+        paginate(text, null, pages);
+        if (pages.size() % 2 == 1) {
+            pages.add("");
+        }
+        return pages;
+    }
+
+    /**
+     * Checks whether a page is too long to be displayed completely.
+     *
+     * @param page The text of the page.
+     * @return True if the text does not fit on a single page.
+     */
+    public boolean overflows(String page) {
+        List<String> pages = new ArrayList<>();
+        paginate(page, null, pages);
+        return pages.size() > 1;
+    }
+
+    /**
+     * Moves text which no longer fits on an edited page to the following pages, as far as needed.
+     * <br>
+     * The pages before the edited one are kept. The following pages are paginated again up to the first page which
+     * starts with the same text at the same position as before; this page and all after it are kept as well.
+     * The end of every old page is kept as the end of a line, so text moved to the next page never runs into the text
+     * which was there before. The number of pages is kept even.
+     *
+     * @param pages The pages of the book, with the edited page already replaced.
+     * @param editedPage The index of the edited page.
+     * @return The pages of the book after the reflow.
+     */
+    public List<String> reflow(List<String> pages, int editedPage) {
+        List<String> newPages = new ArrayList<>(pages.subList(0, editedPage));
+        int keptPage = reflow(pages::get, pages.size(), editedPage, newPages);
+        newPages.addAll(pages.subList(keptPage, pages.size()));
+        while (newPages.size() < pages.size() || newPages.size() % 2 == 1) {
+            newPages.add("");
+        }
+        return newPages;
+    }
+
+    /**
+     * Moves text which no longer fits on an edited page to the following pages, as {@link #reflow(List, int)} does,
+     * but gets the old pages one at a time, only as far as the reflow reaches.
+     * <br>
+     * Every old page is paginated together with the last new page so far, which it may still fill up; the other new
+     * pages are final. The reflow stops as soon as a new page starts where an old page starts.
+     *
+     * @param pageText Gets the text of an old page. It is called for the edited page and the following ones in order,
+     *                 up to the first page which is kept.
+     * @param pageCount The number of old pages.
+     * @param editedPage The index of the edited page.
+     * @param newPages Receives the new pages which replace the old pages from the edited one up to the first kept one.
+     * @return The index of the first old page which is kept, or pageCount if all of them were replaced.
+     */
+    public int reflow(IntFunction<String> pageText, int pageCount, int editedPage, List<String> newPages) {
+        String text = pageText.apply(editedPage);
+        // Where the text starts and where the old page appended to it starts, each but the first after a separator
+        int[] oldPageStarts = {0};
+        List<String> pages = new ArrayList<>();
+        for (int nextPage = editedPage + 1; ; nextPage++) {
+            pages.clear();
+            if (paginate(text, oldPageStarts, pages) > 0) {
+                newPages.addAll(pages);
+                return nextPage - 1;
+            }
+            if (nextPage == pageCount) {
+                newPages.addAll(pages);
+                return pageCount;
+            }
+            String lastPage = pages.remove(pages.size() - 1);
+            newPages.addAll(pages);
+            text = lastPage + PAGE_SEPARATOR + pageText.apply(nextPage);
+            oldPageStarts = new int[]{0, lastPage.length() + 1};
+        }
+    }
+
+    /**
+     * Drops all cached line breaks.
+     */
+    public void clearCache() {
+        lineStartsByParagraph.clear();
+    }
+
+    /**
+     * Adds the pages of a text to a list.
+     *
+     * @param oldPageStarts The ascending positions in the text at which the old pages of a book start, each but the
+     *                      first after a {@link #PAGE_SEPARATOR}, or null. Paginating stops once a new page starts at
+     *                      one of them, and the separators at the end of the new pages are dropped.
+     * @return The index in oldPageStarts of the position a new page started at, or -1 if the whole text was paginated.
+     */
+    private int paginate(String text, int[] oldPageStarts, List<String> pages) {
+        List<int[]> lines = new ArrayList<>();
+        List<int[]> textRuns = new ArrayList<>();
+        PageMarkupTokenizer.tokenize(text, new PageMarkupTokenizer.TokenHandler() {
+            @Override
+            public void text(CharSequence source, int start, int end) {
+                textRuns.add(new int[]{start, end});
+                addTextLines(source, start, end, lines);
+            }
+
+            @Override
+            public void recipe(String prefabName, int start, int end) {
+                lines.add(new int[]{start, RecipeParagraph.HEIGHT});
+            }
+
+            @Override
+            public void chapter(String title, int start, int end) {
+                lines.add(new int[]{start, getLineStarts(title).length * font.getLineHeight()});
+            }
+
+            @Override
+            public void malformedTag(String message, int position) {
+            }
+        });
+
+        List<Integer> pageStarts = new ArrayList<>();
+        pageStarts.add(0);
+        int pageEnd = text.length();
+        int alignedPage = -1;
+        int usedHeight = 0;
+        int nextStop = 0;
+        for (int[] line : lines) {
+            if (usedHeight > 0 && usedHeight + line[1] > pageHeight) {
+                int pageStart = line[0];
+                usedHeight = 0;
+                while (oldPageStarts != null && nextStop < oldPageStarts.length && oldPageStarts[nextStop] < pageStart) {
+                    nextStop++;
+                }
+                if (oldPageStarts != null && nextStop < oldPageStarts.length && oldPageStarts[nextStop] == pageStart) {
+                    pageEnd = pageStart;
+                    alignedPage = nextStop;
+                    break;
+                }
+                pageStarts.add(pageStart);
+            }
+            usedHeight += line[1];
+        }
+        if (alignedPage < 0 && pageStarts.size() > 1 && pageStarts.get(pageStarts.size() - 1) == text.length()) {
+            pageStarts.remove(pageStarts.size() - 1);
+        }
+
+        OpenTagTracker openTags = new OpenTagTracker(text, textRuns);
+        StringBuilder page = new StringBuilder();
+        for (int i = 0; i < pageStarts.size(); i++) {
+            int start = pageStarts.get(i);
+            int end = i + 1 < pageStarts.size() ? pageStarts.get(i + 1) : pageEnd;
+            page.setLength(0);
+            PageMarkup.appendOpenTags(page, openTags.at(start));
+            int textEnd = end;
+            if (oldPageStarts != null && textEnd > start && Arrays.binarySearch(oldPageStarts, 1, oldPageStarts.length, end) > 0) {
+                textEnd--;
+            }
+            page.append(text, start, textEnd);
+            PageMarkup.appendCloseTags(page, openTags.at(end));
+            pages.add(page.toString());
+        }
+        return alignedPage;
+    }
+
+    /**
+     * Adds the lines of a run of text, as pairs of the position the line starts at and its height.
+     */
+    private void addTextLines(CharSequence source, int start, int end, List<int[]> lines) {
+        int lineHeight = font.getLineHeight();
+        int paragraphStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || source.charAt(i) == '\n') {
+                // The newline ends the paragraph; the text after the last newline of the run is a paragraph too
+                if (i == end && paragraphStart == end && end > start) {
+                    break;
+                }
+                String paragraph = source.subSequence(paragraphStart, i).toString();
+                for (int lineStart : getLineStarts(paragraph)) {
+                    lines.add(new int[]{paragraphStart + lineStart, lineHeight});
+                }
+                paragraphStart = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the positions at which the lines of a paragraph start when it is wrapped to the width of a page.
+     * An empty paragraph still takes up one line.
+     */
+    private int[] getLineStarts(String paragraph) {
+        int[] lineStarts = lineStartsByParagraph.get(paragraph);
+        if (lineStarts == null) {
+            lineStarts = computeLineStarts(paragraph);
+            lineStartsByParagraph.put(paragraph, lineStarts);
+        }
+        return lineStarts;
+    }
+
+    private int[] computeLineStarts(String paragraph) {
+        List<Integer> lineStarts = new ArrayList<>();
+        lineStarts.add(0);
+        int lineStart = 0;
+        int lineWidth = 0;
+        int lastSpace = -1;
+        int i = 0;
+        while (i < paragraph.length()) {
+            // Formatting tags such as <c 198> take up no space, any other '<' is shown as it is
+            int tagLength = PageMarkup.getTagLength(paragraph, i);
+            if (tagLength > 0) {
+                i += tagLength;
+                continue;
+            }
+            char c = paragraph.charAt(i);
+            int width = font.getWidth(c);
+            if (lineWidth + width > pageWidth && i > lineStart) {
+                // Break after the last space of the line, or within the word if it fills the whole line
+                lineStart = lastSpace >= lineStart ? lastSpace + 1 : i;
+                lineStarts.add(lineStart);
+                lineWidth = lineStart == i ? 0 : measure(paragraph, lineStart, i);
+            }
+            if (c == ' ') {
+                lastSpace = i;
+            }
+            lineWidth += width;
+            i++;
+        }
+        int[] result = new int[lineStarts.size()];
+        for (int line = 0; line < result.length; line++) {
+            result[line] = lineStarts.get(line);
+        }
+        return result;
+    }
+
+    private int measure(String paragraph, int start, int end) {
+        int width = 0;
+        int i = start;
+        while (i < end) {
+            int tagLength = PageMarkup.getTagLength(paragraph, i);
+            if (tagLength > 0) {
+                i += tagLength;
+            } else {
+                width += font.getWidth(paragraph.charAt(i));
+                i++;
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Finds the formatting tags which are open at ascending positions of a text. Tags never stay open beyond a run of
+     * text, as every run between recipes and chapters is displayed as a paragraph of its own.
+     */
+    private static final class OpenTagTracker {
+        private final String text;
+        private final List<int[]> textRuns;
+        private final Deque<String> openTags = new ArrayDeque<>();
+        private final Deque<String> noTags = new ArrayDeque<>();
+        private int run;
+        private int position;
+
+        OpenTagTracker(String text, List<int[]> textRuns) {
+            this.text = text;
+            this.textRuns = textRuns;
+        }
+
+        /**
+         * @param target A position in the text, at least the one of the previous call. It must not be within a tag.
+         * @return The tags open at the position, innermost first; empty unless the position is within a run of text.
+         */
+        Deque<String> at(int target) {
+            while (run < textRuns.size() && textRuns.get(run)[1] <= target) {
+                run++;
+                openTags.clear();
+            }
+            if (run == textRuns.size() || textRuns.get(run)[0] >= target) {
+                return noTags;
+            }
+            position = Math.max(position, textRuns.get(run)[0]);
+            PageMarkup.readOpenTags(text, position, target, openTags);
+            position = target;
+            return openTags;
+        }
+    }
+}
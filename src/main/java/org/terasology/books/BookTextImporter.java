@@ -0,0 +1,254 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.terasology.books.logic.BookRecipeComponent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Splits a text file into book pages while reading it in chunks, so that only the unfinished page is held in memory,
+ * however long the text and its lines are.
+ * <br>
+ * The authority has no fonts to measure the text with, so the pages are filled by counting lines of an average
+ * length; recipes count as several lines. Lines longer than a page are split at the last space which fits.
+ * Every page is checked for malformed tags and unknown recipes as soon as it is complete.
+ */
+public final class BookTextImporter {
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    /* An estimate of how many characters fit on a line of the book screen */
+    private static final int CHARS_PER_LINE = 40;
+    private static final int LINES_PER_PAGE = 16;
+    /* A recipe is about as high as four lines of text */
+    private static final int LINES_PER_RECIPE = 4;
+    /* Lines are split after this many characters even within a tag, so that a '<' without '>' cannot hold the whole file */
+    private static final int MAX_LINE_LENGTH = 4 * LINES_PER_PAGE * CHARS_PER_LINE;
+
+    private BookTextImporter() {
+    }
+
+    /**
+     * Reads a text and splits it into pages. The number of pages is always even, so the last page may be empty.
+     *
+     * @param reader The text to import, which is read in chunks.
+     * @param pageSink Receives the pages in order.
+     * @param recipeResolver Looks up the recipe of a prefab name, returning null if there is none.
+     * @param problemReporter Receives a description of every malformed tag and unknown recipe, with its page.
+     * @return The number of pages.
+     * @throws IOException If the text cannot be read.
+     */
+    public static int importText(Reader reader, Consumer<String> pageSink, Function<String, BookRecipeComponent> recipeResolver,
+                                 Consumer<String> problemReporter) throws IOException {
+        PageBuilder pages = new PageBuilder(pageSink, recipeResolver, problemReporter);
+        LineBuilder line = new LineBuilder(pages);
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        boolean afterCarriageReturn = false;
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                char c = buffer[i];
+                // Lines end with "\n", "\r\n" or "\r"
+                if (c == '\n' && afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    continue;
+                }
+                afterCarriageReturn = c == '\r';
+                if (c == '\n' || c == '\r') {
+                    line.finish();
+                } else {
+                    line.append(c);
+                }
+            }
+        }
+        if (!line.isEmpty()) {
+            line.finish();
+        }
+        pages.finish();
+        return pages.pageCount;
+    }
+
+    /**
+     * Estimates how many lines a line of the file takes up on a page.
+     */
+    private static int countLines(CharSequence line) {
+        int visibleChars = 0;
+        int recipes = 0;
+        boolean inTag = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '<') {
+                inTag = true;
+                if (startsWith(line, i, PageMarkupTokenizer.RECIPE_TAG)) {
+                    recipes++;
+                }
+            }
+            if (inTag) {
+                inTag = c != '>';
+            } else {
+                visibleChars++;
+            }
+        }
+        return countLines(visibleChars, recipes);
+    }
+
+    private static int countLines(int visibleChars, int recipes) {
+        return Math.max(1, (visibleChars + CHARS_PER_LINE - 1) / CHARS_PER_LINE) + recipes * LINES_PER_RECIPE;
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds where to split a line which is longer than a page: after the last space which fits on the page
+     * and is not within a tag, or within a word if there is none.
+     */
+    private static int findSplit(CharSequence line) {
+        int maxVisibleChars = (LINES_PER_PAGE - LINES_PER_RECIPE) * CHARS_PER_LINE;
+        int visibleChars = 0;
+        int lastSpace = -1;
+        boolean inTag = false;
+        int i = 0;
+        while (i < line.length() && visibleChars < maxVisibleChars) {
+            char c = line.charAt(i);
+            if (c == '<') {
+                inTag = true;
+            }
+            if (inTag) {
+                inTag = c != '>';
+            } else {
+                visibleChars++;
+                if (c == ' ') {
+                    lastSpace = i;
+                }
+            }
+            i++;
+        }
+        if (lastSpace > 0) {
+            return lastSpace + 1;
+        }
+        return Math.max(1, i);
+    }
+
+    /**
+     * Collects the characters of a line of the file. A line which gets longer than a page is split as soon as it does,
+     * passing on the first part, so that only the unfinished part of the line is kept.
+     */
+    private static final class LineBuilder {
+        private final PageBuilder pages;
+        private final StringBuilder line = new StringBuilder();
+        /* Counted as the characters are appended, see countLines */
+        private int visibleChars;
+        private int recipes;
+        /* The index of the '<' of the tag the line ends within, or -1 */
+        private int tagStart = -1;
+
+        LineBuilder(PageBuilder pages) {
+            this.pages = pages;
+        }
+
+        void append(char c) {
+            line.append(c);
+            count(line.length() - 1);
+            if (countLines(visibleChars, recipes) > LINES_PER_PAGE || line.length() > MAX_LINE_LENGTH) {
+                int split = findSplit(line);
+                pages.addLine(line.substring(0, split));
+                line.delete(0, split);
+                visibleChars = 0;
+                recipes = 0;
+                tagStart = -1;
+                for (int i = 0; i < line.length(); i++) {
+                    count(i);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return line.length() == 0;
+        }
+
+        void finish() {
+            pages.addLine(line.toString());
+            line.setLength(0);
+            visibleChars = 0;
+            recipes = 0;
+            tagStart = -1;
+        }
+
+        private void count(int i) {
+            char c = line.charAt(i);
+            if (c == '<') {
+                tagStart = i;
+            }
+            if (tagStart == -1) {
+                visibleChars++;
+            } else if (c == '>') {
+                if (startsWith(line, tagStart, PageMarkupTokenizer.RECIPE_TAG)) {
+                    recipes++;
+                }
+                tagStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Collects lines into pages, passing on every page once it is full.
+     */
+    private static final class PageBuilder {
+        private final Consumer<String> pageSink;
+        private final Function<String, BookRecipeComponent> recipeResolver;
+        private final Consumer<String> problemReporter;
+        private final StringBuilder page = new StringBuilder();
+        private int usedLines;
+        private int pageCount;
+
+        PageBuilder(Consumer<String> pageSink, Function<String, BookRecipeComponent> recipeResolver,
+                    Consumer<String> problemReporter) {
+            this.pageSink = pageSink;
+            this.recipeResolver = recipeResolver;
+            this.problemReporter = problemReporter;
+        }
+
+        void addLine(String line) {
+            int lines = countLines(line);
+            if (usedLines > 0 && usedLines + lines > LINES_PER_PAGE) {
+                completePage();
+            }
+            if (usedLines > 0) {
+                page.append('\n');
+            }
+            page.append(line);
+            usedLines += lines;
+        }
+
+        void finish() {
+            if (usedLines > 0 || pageCount == 0) {
+                completePage();
+            }
+            if (pageCount % 2 == 1) {
+                completePage();
+            }
+        }
+
+        private void completePage() {
+            String text = page.toString();
+            int pageNumber = pageCount + 1;
+            CompiledPage.compile(text, recipeResolver, problem -> problemReporter.accept(problem + " on page " + pageNumber));
+            pageSink.accept(text);
+            page.setLength(0);
+            usedLines = 0;
+            pageCount++;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import com.google.common.collect.ImmutableList;
+import org.terasology.books.logic.BookRecipeComponent;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The intermediate representation of a book page: an immutable list of tokens, with recipe references resolved
+ * to their {@link BookRecipeComponent} where possible. Recipe references which could not be resolved are remembered
+ * as such, so that they are not looked up again whenever the page is shown.
+ */
+public final class CompiledPage {
+    private final List<PageToken> tokens;
+
+    private CompiledPage(List<PageToken> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Compiles the markup of a page.
+     *
+     * @param text The text of the page.
+     * @param recipeResolver Looks up the recipe of a prefab name, returning null if there is none.
+     *                       If the resolver itself is null, recipe tokens are left unresolved.
+     * @param problemReporter Receives a description of every malformed tag and broken recipe reference.
+     * @return The compiled page.
+     */
+    public static CompiledPage compile(String text, Function<String, BookRecipeComponent> recipeResolver,
+                                       Consumer<String> problemReporter) {
+        ImmutableList.Builder<PageToken> tokens = ImmutableList.builder();
+        PageMarkupTokenizer.tokenize(text, new PageMarkupTokenizer.TokenHandler() {
+            @Override
+            public void text(CharSequence source, int start, int end) {
+                tokens.add(PageToken.text(source.subSequence(start, end).toString()));
+            }
+
+            @Override
+            public void recipe(String prefabName, int start, int end) {
+                if (recipeResolver == null) {
+                    tokens.add(PageToken.unresolvedRecipe(prefabName));
+                    return;
+                }
+                BookRecipeComponent recipe = recipeResolver.apply(prefabName);
+                if (recipe == null) {
+                    problemReporter.accept("Unknown recipe '" + prefabName + "' at position " + start);
+                }
+                tokens.add(PageToken.recipe(prefabName, recipe));
+            }
+
+            @Override
+            public void chapter(String title, int start, int end) {
+                tokens.add(PageToken.chapter(title));
+            }
+
+            @Override
+            public void malformedTag(String message, int position) {
+                problemReporter.accept(message + " at position " + position);
+            }
+        });
+        return new CompiledPage(tokens.build());
+    }
+
+    /**
+     * @return The tokens of this page, in order.
+     */
+    public List<PageToken> getTokens() {
+        return tokens;
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.terasology.engine.rendering.nui.widgets.browser.data.DocumentData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of parsed page documents, keyed by the text of the page.
+ * <br>
+ * The least recently used document is evicted once the cache grows beyond its capacity.
+ * This class is not thread-safe and is meant to be accessed from the UI thread only.
+ */
+public class DocumentCache {
+    private final Map<String, DocumentData> documents;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity The maximum number of documents to keep.
+     */
+    public DocumentCache(int capacity) {
+        this.documents = new LinkedHashMap<String, DocumentData>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DocumentData> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the document for a page, creating it if it is not cached yet.
+     *
+     * @param text The text of the page.
+     * @param factory Used to create the document if it is not cached.
+     * @return The document for the given page text.
+     */
+    public DocumentData get(String text, Function<String, DocumentData> factory) {
+        DocumentData document = documents.get(text);
+        if (document != null) {
+            hits++;
+            return document;
+        }
+        misses++;
+        document = factory.apply(text);
+        documents.put(text, document);
+        return document;
+    }
+
+    /**
+     * Checks whether the document of a page is cached, without counting as a hit or miss.
+     *
+     * @param text The text of the page.
+     * @return True if the document is cached.
+     */
+    public boolean contains(String text) {
+        return documents.containsKey(text);
+    }
+
+    /**
+     * Adds a document which was created ahead of time, e.g. by a background task.
+     *
+     * @param text The text of the page.
+     * @param document The document for the given page text.
+     */
+    public void put(String text, DocumentData document) {
+        documents.put(text, document);
+    }
+
+    /**
+     * Removes the document for a single page from the cache.
+     *
+     * @param text The text of the page which is no longer needed.
+     */
+    public void invalidate(String text) {
+        documents.remove(text);
+    }
+
+    /**
+     * Removes all documents from the cache. The hit and miss counters are kept.
+     */
+    public void clear() {
+        documents.clear();
+    }
+
+    /**
+     * @return The number of documents currently cached.
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return How often a requested document was found in the cache.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return How often a requested document had to be created.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.logic.common.DisplayNameComponent;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.rendering.assets.mesh.Mesh;
+import org.terasology.engine.rendering.assets.texture.Texture;
+import org.terasology.engine.utilities.Assets;
+import org.terasology.engine.world.block.Block;
+import org.terasology.module.inventory.ui.ItemIcon;
+import org.terasology.nui.UITextureRegion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Module-wide cache of everything needed to display a recipe ingredient, keyed by its {@link Block} or item {@link Prefab}.
+ * <br>
+ * Looking up the standalone mesh of a block is expensive, so recipe books showing the same ingredients over and over
+ * again only do it once per block. The least recently used entries are evicted once the cache is full.
+ * This class is not thread-safe and is meant to be accessed from the game thread only.
+ */
+public final class IngredientIconCache {
+    private static final int CAPACITY = 256;
+    private static final String TERRAIN_TEXTURE = "engine:terrain";
+
+    private static final Map<Object, IngredientIcon> ICONS = new LinkedHashMap<Object, IngredientIcon>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, IngredientIcon> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    private static Texture terrainTexture;
+
+    private IngredientIconCache() {
+    }
+
+    /**
+     * Stores a block's model into an ItemIcon.
+     *
+     * @param itemIcon The icon to store the block into.
+     * @param block The block to get the model of.
+     */
+    public static void applyBlock(ItemIcon itemIcon, Block block) {
+        ICONS.computeIfAbsent(block, key -> {
+            if (terrainTexture == null) {
+                terrainTexture = Assets.getTexture(TERRAIN_TEXTURE).get();
+            }
+            return new IngredientIcon(null, block.getMeshGenerator().getStandaloneMesh(), terrainTexture,
+                    block.getDisplayName());
+        }).applyTo(itemIcon);
+    }
+
+    /**
+     * Stores an item's icon into an ItemIcon.
+     *
+     * @param itemIcon The icon to store the item into.
+     * @param item The item prefab to get the icon of.
+     */
+    public static void applyItem(ItemIcon itemIcon, Prefab item) {
+        ICONS.computeIfAbsent(item, key -> {
+            ItemComponent itemComponent = item.getComponent(ItemComponent.class);
+            DisplayNameComponent displayName = item.getComponent(DisplayNameComponent.class);
+            return new IngredientIcon(itemComponent.icon, null, null, displayName != null ? displayName.name : null);
+        }).applyTo(itemIcon);
+    }
+
+    /**
+     * Drops all cached icons, e.g. after assets have been reloaded.
+     */
+    public static void clear() {
+        ICONS.clear();
+        terrainTexture = null;
+    }
+
+    /**
+     * The prepared display state of a single ingredient.
+     */
+    private static final class IngredientIcon {
+        private final UITextureRegion icon;
+        private final Mesh mesh;
+        private final Texture meshTexture;
+        private final String tooltip;
+
+        IngredientIcon(UITextureRegion icon, Mesh mesh, Texture meshTexture, String tooltip) {
+            this.icon = icon;
+            this.mesh = mesh;
+            this.meshTexture = meshTexture;
+            this.tooltip = tooltip;
+        }
+
+        void applyTo(ItemIcon itemIcon) {
+            if (icon != null) {
+                itemIcon.setIcon(icon);
+            }
+            if (mesh != null) {
+                itemIcon.setMesh(mesh);
+                itemIcon.setMeshTexture(meshTexture);
+            }
+            if (tooltip != null) {
+                itemIcon.setTooltip(tooltip);
+            }
+        }
+    }
+}
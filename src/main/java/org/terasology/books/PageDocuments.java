@@ -0,0 +1,122 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.logic.BookRecipeComponent;
+import org.terasology.engine.rendering.nui.widgets.browser.data.DocumentData;
+import org.terasology.engine.rendering.nui.widgets.browser.data.ParagraphData;
+import org.terasology.engine.rendering.nui.widgets.browser.data.basic.HTMLLikeParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Turns the text of a page into the document shown by the book screen: the text is compiled into tokens, and every
+ * token becomes a text or recipe paragraph.
+ * <br>
+ * Needs no assets, so that it can also be used outside of a running game, e.g. by benchmarks.
+ */
+public final class PageDocuments {
+    private static final Logger logger = LoggerFactory.getLogger(PageDocuments.class);
+
+    private static final String TEXT_COLOR = "198";
+    private static final String HIGHLIGHT_COLOR = "66000098";
+
+    private PageDocuments() {
+    }
+
+    /**
+     * Tokenizes a page, unless it has been compiled ahead of time. Recipes of pages compiled here are left to be
+     * resolved when the document is created. Safe to call on a worker thread, so that pages can be prefetched.
+     *
+     * @param text The text of the page.
+     * @param compiledPages Gets the page if it has been compiled ahead of time, or null otherwise.
+     * @return The tokens of the page.
+     */
+    public static CompiledPage compilePage(String text, Function<String, CompiledPage> compiledPages) {
+        BookMetrics.record(BookMetrics.Metric.PAGE_LENGTH, text.length());
+        CompiledPage compiledPage = compiledPages.apply(text);
+        if (compiledPage == null) {
+            compiledPage = CompiledPage.compile(text, null, problem -> logger.warn("{} of page: {}", problem, text));
+        }
+        return compiledPage;
+    }
+
+    /**
+     * Converts the tokens of a page into TextParagraphs and RecipeParagraphs. Must be called on the game thread.
+     *
+     * @param compiledPage The tokens of the page.
+     * @param highlightedTerms The search terms to highlight in the text.
+     * @param recipes Resolves the recipes which have not been resolved while compiling the page.
+     * @return The document of the page.
+     */
+    public static DocumentData createDocument(CompiledPage compiledPage, Set<String> highlightedTerms,
+                                              Function<String, BookRecipeComponent> recipes) {
+        long start = BookMetrics.start();
+        DefaultDocumentData page = new DefaultDocumentData(null);
+        for (PageToken token : compiledPage.getTokens()) {
+            if (token.getType() == PageToken.Type.RECIPE) {
+                page.addParagraph(createRecipeParagraph(token, recipes));
+            } else {
+                // Chapter markers show their title where they start
+                page.addParagraph(createTextParagraph(token.getValue(), highlightedTerms));
+            }
+        }
+        BookMetrics.stop(BookMetrics.Metric.PARSE_PAGE, start);
+        return page;
+    }
+
+    /**
+     * Creates the paragraph of a single token of a page, e.g. for the preview of the page editor.
+     *
+     * @param token The token of the page.
+     * @param recipes Resolves the recipe of the token if it has not been resolved yet.
+     * @return The paragraph of the token.
+     */
+    public static ParagraphData createParagraph(PageToken token, Function<String, BookRecipeComponent> recipes) {
+        if (token.getType() == PageToken.Type.RECIPE) {
+            return createRecipeParagraph(token, recipes);
+        }
+        return createTextParagraph(token.getValue(), Collections.emptySet());
+    }
+
+    /**
+     * Converts text into a paragraph, highlighting all occurrences of the given terms.
+     */
+    private static ParagraphData createTextParagraph(String text, Set<String> highlightedTerms) {
+        List<int[]> highlights = new ArrayList<>();
+        if (!highlightedTerms.isEmpty()) {
+            SearchTerms.forEachTerm(text, (term, start, end) -> {
+                if (highlightedTerms.contains(term)) {
+                    highlights.add(new int[]{start, end});
+                }
+            });
+        }
+        return HTMLLikeParser.parseHTMLLikeParagraph(null, PageMarkup.format(text, TEXT_COLOR, highlights, HIGHLIGHT_COLOR));
+    }
+
+    /**
+     * Creates the paragraph of a recipe, resolving the recipe first if that has not happened while compiling the page.
+     * Unknown recipes are shown as a placeholder text.
+     */
+    private static ParagraphData createRecipeParagraph(PageToken token, Function<String, BookRecipeComponent> recipes) {
+        String prefabName = token.getValue();
+        BookRecipeComponent recipe = token.isResolved() ? token.getRecipe() : recipes.apply(prefabName);
+        if (recipe == null) {
+            logger.debug("Unknown recipe '{}'", prefabName);
+            String placeholder = "[" + prefabName + "]";
+            return createTextParagraph(placeholder, Collections.emptySet());
+        }
+        long start = BookMetrics.start();
+        RecipeParagraph paragraph = new RecipeParagraph(recipe.blockIngredients, recipe.blockIngredientsList,
+                recipe.itemIngredients, recipe.blockResult,
+                recipe.itemResult, recipe.resultCount);
+        BookMetrics.stop(BookMetrics.Metric.RECIPE_ICONS, start);
+        return paragraph;
+    }
+}
@@ -0,0 +1,296 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Converts the text of a page into the markup read by the HTML-like parser of the browser widget.
+ * <br>
+ * The formatting tags of the text are line breaks {@code <l>}, colors {@code <c rrggbb>...</c>} and hyperlinks
+ * {@code <h link>...</h>}; line breaks of the text become {@code <l>} as well. Everything else is escaped and shown
+ * as it was typed, including malformed tags such as a {@code <recipe} without its closing {@code >}, closing tags
+ * which do not match the open tag, and {@code &} other than in {@code &lt;}, {@code &gt;} and {@code &amp;}, as the
+ * parser throws on all of these. Tags which are still open at the end are closed.
+ * Highlights only ever cover the characters of the text, never parts of a tag, and the formatting they interrupt is
+ * opened again after them.
+ */
+public final class PageMarkup {
+    private static final String LINE_BREAK = "<l>";
+    private static final String COLOR_OPEN = "<c ";
+    private static final String COLOR_CLOSE = "</c>";
+    private static final String LINK_OPEN = "<h ";
+    private static final String LINK_CLOSE = "</h>";
+    private static final String[] ENTITIES = {"&lt;", "&gt;", "&amp;"};
+    /* Colors are written as up to eight hex digits, e.g. <c 66000098> */
+    private static final int MAX_COLOR_DIGITS = 8;
+
+    private PageMarkup() {
+    }
+
+    /**
+     * Converts a run of text into markup.
+     *
+     * @param text The text, with its formatting tags and line breaks.
+     * @param textColor The color of the text, as hex digits.
+     * @param highlights The ranges of the text to highlight as pairs of start (inclusive) and end (exclusive),
+     *                   ascending and not overlapping.
+     * @param highlightColor The color of highlighted text, as hex digits.
+     * @return The markup of the text.
+     */
+    public static String format(String text, String textColor, List<int[]> highlights, String highlightColor) {
+        StringBuilder markup = new StringBuilder(text.length() + 2 * COLOR_OPEN.length() + 2 * COLOR_CLOSE.length());
+        // The open formatting tags, innermost first; the color of the text is at the bottom
+        Deque<String> openTags = new ArrayDeque<>();
+        String textColorTag = COLOR_OPEN + textColor + ">";
+        markup.append(textColorTag);
+        openTags.push(textColorTag);
+        String highlightTag = COLOR_OPEN + highlightColor + ">";
+        int highlight = 0;
+        boolean highlighting = false;
+        int i = 0;
+        while (i < text.length()) {
+            int tagLength = getTagLength(text, i);
+            if (tagLength > 0 && !fitsOpenTags(text, i, openTags)) {
+                tagLength = 0;
+            }
+            if (tagLength > 0) {
+                // Tags are never highlighted, so that they are not split or moved into the highlight
+                if (highlighting) {
+                    endHighlight(markup, openTags);
+                    highlighting = false;
+                }
+                appendTag(markup, openTags, text.substring(i, i + tagLength));
+                i += tagLength;
+                continue;
+            }
+            while (highlight < highlights.size() && highlights.get(highlight)[1] <= i) {
+                highlight++;
+            }
+            boolean highlighted = highlight < highlights.size() && highlights.get(highlight)[0] <= i;
+            if (highlighted && !highlighting) {
+                startHighlight(markup, openTags, highlightTag);
+            } else if (!highlighted && highlighting) {
+                endHighlight(markup, openTags);
+            }
+            highlighting = highlighted;
+            i += appendEscaped(markup, text, i);
+        }
+        if (highlighting) {
+            endHighlight(markup, openTags);
+        }
+        while (!openTags.isEmpty()) {
+            markup.append(getCloseTag(openTags.pop()));
+        }
+        return markup.toString();
+    }
+
+    /**
+     * Escapes a text so that it is shown as it is, e.g. a title which is inserted into markup.
+     *
+     * @param text The text.
+     * @return The escaped text.
+     */
+    public static String escape(String text) {
+        StringBuilder markup = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                markup.append("&lt;");
+            } else if (c == '>') {
+                markup.append("&gt;");
+            } else if (c == '&') {
+                markup.append("&amp;");
+            } else {
+                markup.append(c);
+            }
+        }
+        return markup.toString();
+    }
+
+    /**
+     * Gets the length of the formatting tag at a position of a text.
+     *
+     * @param text The text.
+     * @param offset The position in the text.
+     * @return The number of characters of the tag, or 0 if there is no formatting tag at the position.
+     */
+    public static int getTagLength(CharSequence text, int offset) {
+        if (text.charAt(offset) != '<') {
+            return 0;
+        }
+        if (startsWith(text, offset, LINE_BREAK)) {
+            return LINE_BREAK.length();
+        }
+        if (startsWith(text, offset, COLOR_CLOSE)) {
+            return COLOR_CLOSE.length();
+        }
+        if (startsWith(text, offset, LINK_CLOSE)) {
+            return LINK_CLOSE.length();
+        }
+        if (startsWith(text, offset, COLOR_OPEN)) {
+            int end = offset + COLOR_OPEN.length();
+            while (end < text.length() && end - offset - COLOR_OPEN.length() < MAX_COLOR_DIGITS
+                    && Character.digit(text.charAt(end), 16) >= 0) {
+                end++;
+            }
+            boolean valid = end > offset + COLOR_OPEN.length() && end < text.length() && text.charAt(end) == '>';
+            return valid ? end + 1 - offset : 0;
+        }
+        if (startsWith(text, offset, LINK_OPEN)) {
+            int end = offset + LINK_OPEN.length();
+            while (end < text.length() && text.charAt(end) != '>' && text.charAt(end) != '<' && text.charAt(end) != '\n') {
+                end++;
+            }
+            boolean valid = end > offset + LINK_OPEN.length() && end < text.length() && text.charAt(end) == '>';
+            return valid ? end + 1 - offset : 0;
+        }
+        return 0;
+    }
+
+    /**
+     * Follows the formatting tags of a part of a text, as {@link #format} reads them: closing tags which do not match
+     * the innermost open tag and links within links are ignored.
+     *
+     * @param text The text.
+     * @param start The position to start at, inclusive.
+     * @param end The position to stop at, exclusive. It must not be within a tag.
+     * @param openTags The tags open at the start, innermost first. Receives the tags open at the end.
+     */
+    public static void readOpenTags(CharSequence text, int start, int end, Deque<String> openTags) {
+        int i = start;
+        while (i < end) {
+            int tagLength = getTagLength(text, i);
+            if (tagLength == 0) {
+                i++;
+                continue;
+            }
+            String tag = text.subSequence(i, i + tagLength).toString();
+            if (tag.equals(COLOR_CLOSE) || tag.equals(LINK_CLOSE)) {
+                if (!openTags.isEmpty() && tag.equals(getCloseTag(openTags.peek()))) {
+                    openTags.pop();
+                }
+            } else if (!tag.equals(LINE_BREAK) && !(tag.startsWith(LINK_OPEN) && containsLink(openTags))) {
+                openTags.push(tag);
+            }
+            i += tagLength;
+        }
+    }
+
+    /**
+     * Closes open tags, innermost first.
+     *
+     * @param markup Receives the closing tags.
+     * @param openTags The open tags, innermost first.
+     */
+    public static void appendCloseTags(StringBuilder markup, Deque<String> openTags) {
+        for (String openTag : openTags) {
+            markup.append(getCloseTag(openTag));
+        }
+    }
+
+    /**
+     * Opens tags again which were closed by {@link #appendCloseTags}, outermost first.
+     *
+     * @param markup Receives the opening tags.
+     * @param openTags The open tags, innermost first.
+     */
+    public static void appendOpenTags(StringBuilder markup, Deque<String> openTags) {
+        Iterator<String> outermostFirst = openTags.descendingIterator();
+        while (outermostFirst.hasNext()) {
+            markup.append(outermostFirst.next());
+        }
+    }
+
+    /**
+     * Appends a character of the text. Entities which the parser understands are kept as a whole, so {@code &lt;} is
+     * still shown as {@code <} and never split by a highlight.
+     *
+     * @return The number of characters of the text appended.
+     */
+    private static int appendEscaped(StringBuilder markup, String text, int offset) {
+        char c = text.charAt(offset);
+        if (c == '\n') {
+            markup.append(LINE_BREAK);
+        } else if (c == '<') {
+            markup.append("&lt;");
+        } else if (c == '>') {
+            markup.append("&gt;");
+        } else if (c == '&') {
+            for (String entity : ENTITIES) {
+                if (text.startsWith(entity, offset)) {
+                    markup.append(entity);
+                    return entity.length();
+                }
+            }
+            markup.append("&amp;");
+        } else {
+            markup.append(c);
+        }
+        return 1;
+    }
+
+    /**
+     * Checks whether the tag at a position can be kept: closing tags have to close the innermost open tag, and links
+     * cannot contain links. The color of the text at the bottom is only closed at the end.
+     */
+    private static boolean fitsOpenTags(String text, int offset, Deque<String> openTags) {
+        if (text.startsWith(COLOR_CLOSE, offset) || text.startsWith(LINK_CLOSE, offset)) {
+            return openTags.size() > 1 && text.startsWith(getCloseTag(openTags.peek()), offset);
+        }
+        return !text.startsWith(LINK_OPEN, offset) || !containsLink(openTags);
+    }
+
+    private static boolean containsLink(Deque<String> openTags) {
+        for (String openTag : openTags) {
+            if (openTag.startsWith(LINK_OPEN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendTag(StringBuilder markup, Deque<String> openTags, String tag) {
+        if (tag.equals(COLOR_CLOSE) || tag.equals(LINK_CLOSE)) {
+            openTags.pop();
+        } else if (!tag.equals(LINE_BREAK)) {
+            openTags.push(tag);
+        }
+        markup.append(tag);
+    }
+
+    /**
+     * Closes all open tags, innermost first, and starts the highlight.
+     */
+    private static void startHighlight(StringBuilder markup, Deque<String> openTags, String highlightTag) {
+        appendCloseTags(markup, openTags);
+        markup.append(highlightTag);
+    }
+
+    /**
+     * Ends the highlight and opens the tags closed by {@link #startHighlight} again, outermost first.
+     */
+    private static void endHighlight(StringBuilder markup, Deque<String> openTags) {
+        markup.append(COLOR_CLOSE);
+        appendOpenTags(markup, openTags);
+    }
+
+    private static String getCloseTag(String openTag) {
+        return openTag.startsWith(LINK_OPEN) ? LINK_CLOSE : COLOR_CLOSE;
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, String prefix) {
+        if (offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+/**
+ * Splits the markup of a book page into text, recipe and chapter tokens in a single pass.
+ * <br>
+ * A recipe is inserted into a page with a tag such as <pre>{@code <recipe module:prefab>}</pre>, and a chapter
+ * starts with a tag such as <pre>{@code <chapter The Title>}</pre>. Everything else on the page is plain text.
+ * The tokenizer never copies the page; text tokens are reported as ranges of the original character sequence.
+ */
+public final class PageMarkupTokenizer {
+    public static final String RECIPE_TAG = "<recipe";
+    public static final String CHAPTER_TAG = "<chapter";
+
+    private PageMarkupTokenizer() {
+    }
+
+    /**
+     * Receives the tokens of a page in the order in which they appear.
+     */
+    public interface TokenHandler {
+        /**
+         * Called for a run of plain text. Empty runs are not reported.
+         *
+         * @param source The page being tokenized.
+         * @param start The index of the first character of the text, inclusive.
+         * @param end The index after the last character of the text, exclusive.
+         */
+        void text(CharSequence source, int start, int end);
+
+        /**
+         * Called for a recipe tag.
+         *
+         * @param prefabName The name of the recipe prefab, with all whitespace removed.
+         * @param start The index of the opening {@code <} of the tag.
+         * @param end The index after the closing {@code >} of the tag.
+         */
+        void recipe(String prefabName, int start, int end);
+
+        /**
+         * Called for a chapter tag, which marks the start of a chapter for the table of contents.
+         *
+         * @param title The title of the chapter, with leading and trailing whitespace removed.
+         * @param start The index of the opening {@code <} of the tag.
+         * @param end The index after the closing {@code >} of the tag.
+         */
+        void chapter(String title, int start, int end);
+
+        /**
+         * Called when a tag cannot be read. The characters of the malformed tag are reported as text afterwards,
+         * which {@link PageMarkup} escapes, so that they are shown as they were typed.
+         *
+         * @param message Describes what is wrong with the tag.
+         * @param position The index of the opening {@code <} of the tag.
+         */
+        void malformedTag(String message, int position);
+    }
+
+    /**
+     * Tokenizes a page, reporting all tokens to the handler.
+     *
+     * @param source The text of the page.
+     * @param handler The handler receiving the tokens.
+     */
+    public static void tokenize(CharSequence source, TokenHandler handler) {
+        int length = source.length();
+        int textStart = 0;
+        int i = 0;
+        while (i < length) {
+            boolean recipe = false;
+            boolean chapter = false;
+            if (source.charAt(i) == '<') {
+                recipe = startsWithTag(source, i, RECIPE_TAG);
+                chapter = !recipe && startsWithTag(source, i, CHAPTER_TAG);
+            }
+            if (!recipe && !chapter) {
+                i++;
+                continue;
+            }
+            int tagStart = i;
+            StringBuilder argument = new StringBuilder();
+            i += recipe ? RECIPE_TAG.length() : CHAPTER_TAG.length();
+            while (i < length && source.charAt(i) != '>' && source.charAt(i) != '<') {
+                char c = source.charAt(i);
+                // Prefab names cannot contain whitespace, chapter titles keep it
+                if (chapter || !Character.isWhitespace(c)) {
+                    argument.append(c);
+                }
+                i++;
+            }
+            String tagName = recipe ? "Recipe" : "Chapter";
+            if (i == length || source.charAt(i) == '<') {
+                handler.malformedTag(tagName + " tag is missing its closing '>'", tagStart);
+                continue;
+            }
+            i++;
+            String value = argument.toString().trim();
+            if (value.isEmpty()) {
+                handler.malformedTag(tagName + (recipe ? " tag does not name a recipe" : " tag has no title"), tagStart);
+                continue;
+            }
+            if (textStart < tagStart) {
+                handler.text(source, textStart, tagStart);
+            }
+            if (recipe) {
+                handler.recipe(value, tagStart, i);
+            } else {
+                handler.chapter(value, tagStart, i);
+            }
+            textStart = i;
+        }
+        if (textStart < length) {
+            handler.text(source, textStart, length);
+        }
+    }
+
+    /**
+     * Gets the length of a well-formed recipe or chapter tag, as {@link #tokenize} reads it.
+     *
+     * @param source The text of the page.
+     * @param offset The position in the text.
+     * @return The number of characters of the tag, or 0 if there is no well-formed recipe or chapter tag at the position.
+     */
+    public static int getTagLength(CharSequence source, int offset) {
+        boolean recipe = startsWithTag(source, offset, RECIPE_TAG);
+        if (!recipe && !startsWithTag(source, offset, CHAPTER_TAG)) {
+            return 0;
+        }
+        int length = source.length();
+        int i = offset + (recipe ? RECIPE_TAG.length() : CHAPTER_TAG.length());
+        boolean empty = true;
+        while (i < length && source.charAt(i) != '>' && source.charAt(i) != '<') {
+            empty &= Character.isWhitespace(source.charAt(i));
+            i++;
+        }
+        if (i == length || source.charAt(i) == '<' || empty) {
+            return 0;
+        }
+        return i + 1 - offset;
+    }
+
+    private static boolean startsWithTag(CharSequence source, int offset, String tag) {
+        if (offset + tag.length() > source.length()) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (source.charAt(offset + i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.GameThread;
+import org.terasology.engine.rendering.nui.widgets.browser.data.DocumentData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Prepares pages which are likely to be shown next, so that turning a page does not have to.
+ * <br>
+ * Only the markup of the pages is tokenized on the worker thread. The paragraphs are created from the tokens on the
+ * game thread, as the HTML-like parser and the widgets of recipes must not be used anywhere else, and the finished
+ * document is put into the {@link DocumentCache}.
+ */
+public class PagePrefetcher {
+    private static final Logger logger = LoggerFactory.getLogger(PagePrefetcher.class);
+
+    private final DocumentCache cache;
+    private final Function<String, CompiledPage> preparer;
+    private final Function<CompiledPage, DocumentData> assembler;
+
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private ExecutorService executor;
+    /* Incremented on cancellation, so that results of tasks which were already running are dropped */
+    private int generation;
+
+    /**
+     * @param cache The cache to put finished documents into.
+     * @param preparer Tokenizes a page; called on the worker thread.
+     * @param assembler Creates the document of a tokenized page; called on the game thread.
+     */
+    public PagePrefetcher(DocumentCache cache, Function<String, CompiledPage> preparer,
+                   Function<CompiledPage, DocumentData> assembler) {
+        this.cache = cache;
+        this.preparer = preparer;
+        this.assembler = assembler;
+    }
+
+    /**
+     * Schedules pages to be prepared in the background, unless they are already cached or being prepared.
+     * Must be called from the game thread.
+     *
+     * @param texts The texts of the pages to prepare.
+     */
+    public void prefetch(Iterable<String> texts) {
+        tasks.removeIf(Future::isDone);
+        for (String text : texts) {
+            if (text.isEmpty() || cache.contains(text) || !inFlight.add(text)) {
+                continue;
+            }
+            int taskGeneration = generation;
+            tasks.add(getExecutor().submit(() -> {
+                CompiledPage page;
+                try {
+                    page = preparer.apply(text);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to prefetch page", e);
+                    page = null;
+                }
+                CompiledPage result = page;
+                GameThread.asynch(() -> complete(taskGeneration, text, result));
+            }));
+        }
+    }
+
+    /**
+     * Cancels all outstanding work. Pages which are already tokenized are not added to the cache anymore.
+     */
+    public void cancel() {
+        generation++;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+        tasks.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Cancels all outstanding work and stops the worker thread, e.g. when the game shuts down.
+     * A new worker thread is started if pages are prefetched again afterwards.
+     */
+    public void shutdown() {
+        cancel();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void complete(int taskGeneration, String text, CompiledPage page) {
+        if (taskGeneration != generation) {
+            return;
+        }
+        inFlight.remove(text);
+        if (page != null && !cache.contains(text)) {
+            try {
+                cache.put(text, assembler.apply(page));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prefetch page", e);
+            }
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Books-page-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * An index from search terms to the pages of a single book containing them, used to search within an open book.
+ * <br>
+ * The index is immutable; it has to be built again after the book was edited.
+ */
+public final class PageSearchIndex {
+    private static final int[] NO_PAGES = new int[0];
+
+    private final Map<String, int[]> pagesByTerm;
+
+    private PageSearchIndex(Map<String, int[]> pagesByTerm) {
+        this.pagesByTerm = pagesByTerm;
+    }
+
+    /**
+     * Builds the index of a book.
+     *
+     * @param pageCount The number of pages of the book.
+     * @param pageText Gets the text of a page by its index, or null if the page is not available.
+     * @return The index.
+     */
+    public static PageSearchIndex build(int pageCount, IntFunction<String> pageText) {
+        Map<String, int[]> pagesByTerm = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        Set<String> pageTerms = new HashSet<>();
+        for (int page = 0; page < pageCount; page++) {
+            String text = pageText.apply(page);
+            if (text == null) {
+                continue;
+            }
+            pageTerms.clear();
+            SearchTerms.forEachTerm(text, (term, start, end) -> pageTerms.add(term));
+            for (String term : pageTerms) {
+                int[] pages = pagesByTerm.getOrDefault(term, NO_PAGES);
+                int count = counts.getOrDefault(term, 0);
+                if (count == pages.length) {
+                    pages = Arrays.copyOf(pages, Math.max(4, count * 2));
+                    pagesByTerm.put(term, pages);
+                }
+                pages[count] = page;
+                counts.put(term, count + 1);
+            }
+        }
+        pagesByTerm.replaceAll((term, pages) -> Arrays.copyOf(pages, counts.get(term)));
+        return new PageSearchIndex(pagesByTerm);
+    }
+
+    /**
+     * Finds the pages containing all given terms.
+     *
+     * @param terms The terms to search for, in lower case as returned by {@link SearchTerms#parseQuery(String)}.
+     * @return The indices of the matching pages in ascending order.
+     */
+    public int[] findPages(List<String> terms) {
+        if (terms.isEmpty()) {
+            return NO_PAGES;
+        }
+        int[] result = pagesByTerm.getOrDefault(terms.get(0), NO_PAGES);
+        for (int i = 1; i < terms.size() && result.length > 0; i++) {
+            int[] pages = pagesByTerm.getOrDefault(terms.get(i), NO_PAGES);
+            result = Arrays.stream(result).filter(page -> Arrays.binarySearch(pages, page) >= 0).toArray();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.terasology.books.logic.BookRecipeComponent;
+
+/**
+ * A single immutable token of a compiled book page: a run of text, a reference to a recipe or the start of a chapter.
+ */
+public final class PageToken {
+    /**
+     * The kinds of tokens a page can consist of.
+     */
+    public enum Type {
+        TEXT,
+        RECIPE,
+        CHAPTER
+    }
+
+    private final Type type;
+    private final String value;
+    private final BookRecipeComponent recipe;
+    private final boolean resolved;
+
+    private PageToken(Type type, String value, BookRecipeComponent recipe, boolean resolved) {
+        this.type = type;
+        this.value = value;
+        this.recipe = recipe;
+        this.resolved = resolved;
+    }
+
+    /**
+     * Creates a token for a run of text.
+     *
+     * @param text The text, which may still contain HTML-like formatting and line breaks.
+     * @return The new token.
+     */
+    public static PageToken text(String text) {
+        return new PageToken(Type.TEXT, text, null, false);
+    }
+
+    /**
+     * Creates a token for a recipe which has been looked up.
+     *
+     * @param prefabName The name of the recipe prefab.
+     * @param recipe The recipe the prefab refers to, or null if there is no such recipe.
+     * @return The new token.
+     */
+    public static PageToken recipe(String prefabName, BookRecipeComponent recipe) {
+        return new PageToken(Type.RECIPE, prefabName, recipe, true);
+    }
+
+    /**
+     * Creates a token for a recipe which has not been looked up yet.
+     *
+     * @param prefabName The name of the recipe prefab.
+     * @return The new token.
+     */
+    public static PageToken unresolvedRecipe(String prefabName) {
+        return new PageToken(Type.RECIPE, prefabName, null, false);
+    }
+
+    /**
+     * Creates a token for the start of a chapter.
+     *
+     * @param title The title of the chapter.
+     * @return The new token.
+     */
+    public static PageToken chapter(String title) {
+        return new PageToken(Type.CHAPTER, title, null, false);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The text of a text token, the prefab name of a recipe token or the title of a chapter token.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return The resolved recipe of a recipe token, or null if it is not a recipe token, the recipe was not resolved
+     *         or there is no such recipe.
+     */
+    public BookRecipeComponent getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * @return Whether the recipe of a recipe token has been looked up. If so and {@link #getRecipe()} is null,
+     *         the recipe does not exist and need not be looked up again.
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+}
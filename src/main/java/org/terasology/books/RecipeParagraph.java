@@ -5,14 +5,11 @@ package org.terasology.books;
 import org.joml.Vector2i;
 import org.terasology.books.logic.BookRecipeComponent;
 import org.terasology.engine.entitySystem.prefab.Prefab;
-import org.terasology.engine.logic.common.DisplayNameComponent;
-import org.terasology.engine.logic.inventory.ItemComponent;
 import org.terasology.module.inventory.ui.ItemIcon;
 import org.terasology.engine.rendering.nui.widgets.browser.data.ParagraphData;
 import org.terasology.engine.rendering.nui.widgets.browser.data.basic.flow.ContainerRenderSpace;
 import org.terasology.engine.rendering.nui.widgets.browser.ui.ParagraphRenderable;
 import org.terasology.engine.rendering.nui.widgets.browser.ui.style.ParagraphRenderStyle;
-import org.terasology.engine.utilities.Assets;
 import org.terasology.engine.world.block.Block;
 import org.terasology.joml.geom.Rectanglei;
 import org.terasology.nui.Canvas;
@@ -22,17 +19,32 @@ import java.util.List;
 
 /**
  * Used to display recipes alongside text in a book by putting it in a paragraph.
+ * The icons of the ingredients are shared through the {@link IngredientIconCache}.
  */
 public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
-    private int indentAbove = 5;
-    private int indentBelow = 5;
-    private int ingredientSpacing = 3;
-    private int resultSpacing = 30;
+    private static final ParagraphRenderStyle RENDER_STYLE = new ParagraphRenderStyle() {
+        @Override
+        public HorizontalAlign getHorizontalAlignment() {
+            return HorizontalAlign.CENTER;
+        }
+    };
+
+    private static final int INDENT_ABOVE = 5;
+    private static final int INDENT_BELOW = 5;
+    private static final int INGREDIENT_SPACING = 3;
+    private static final int RESULT_SPACING = 30;
+    private static final int ICON_SIZE = 64;
+    /**
+     * The height of every recipe, which does not depend on its ingredients.
+     */
+    public static final int HEIGHT = INDENT_ABOVE + ICON_SIZE + INDENT_BELOW;
 
-    private int iconSize = 64;
     private ItemIcon[] ingredientIcons;
     private ItemIcon resultIcon;
 
+    /* The layout never changes, so it is computed once and the region is reused while rendering */
+    private final int preferredWidth;
+    private final Rectanglei iconRegion = new Rectanglei();
 
     /**
      * Creates a new RecipeParagraph using data from a {@link BookRecipeComponent}.
@@ -49,19 +61,22 @@ public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
         for (int i = 0; i < ingredientIcons.length; i++) {
             ItemIcon itemIcon = new ItemIcon();
             if (i < blockIngredientsList.size()) {
-                initializeForBlock(itemIcon, blockIngredientsList.get(i));
+                IngredientIconCache.applyBlock(itemIcon, blockIngredientsList.get(i));
             } else {
-                initializeForItem(itemIcon, itemIngredients.get(i - blockIngredientsList.size()));
+                IngredientIconCache.applyItem(itemIcon, itemIngredients.get(i - blockIngredientsList.size()));
             }
             ingredientIcons[i] = itemIcon;
         }
         resultIcon = new ItemIcon();
         if (blockResult != null) {
-            initializeForBlock(resultIcon, blockResult);
+            IngredientIconCache.applyBlock(resultIcon, blockResult);
         } else {
-            initializeForItem(resultIcon, itemResult);
+            IngredientIconCache.applyItem(resultIcon, itemResult);
         }
         resultIcon.setQuantity(resultCount);
+
+        int ingredientsCount = ingredientIcons.length;
+        preferredWidth = ingredientsCount * ICON_SIZE + (ingredientsCount - 1) * INGREDIENT_SPACING + RESULT_SPACING + ICON_SIZE;
     }
 
     /**
@@ -73,12 +88,7 @@ public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
      */
     @Override
     public ParagraphRenderStyle getParagraphRenderStyle() {
-        return new ParagraphRenderStyle() {
-            @Override
-            public HorizontalAlign getHorizontalAlignment() {
-                return HorizontalAlign.CENTER;
-            }
-        };
+        return RENDER_STYLE;
     }
 
     /**
@@ -92,54 +102,25 @@ public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
     }
 
 
-    /**
-     * Stores an item's icon into an ItemIcon
-     *
-     * @param itemIcon The icon to store the item into.
-     * @param itemIngredient The item to get the icon of.
-     */
-    private void initializeForItem(ItemIcon itemIcon, Prefab itemIngredient) {
-        ItemComponent item = itemIngredient.getComponent(ItemComponent.class);
-        DisplayNameComponent displayName = itemIngredient.getComponent(DisplayNameComponent.class);
-        itemIcon.setIcon(item.icon);
-        if (displayName != null) {
-            itemIcon.setTooltip(displayName.name);
-        }
-    }
-
-    /**
-     * Stores a block's model into an ItemIcon.
-     *
-     * @param itemIcon The icon to store the block into.
-     * @param blockIngredient The block to get the model of.
-     */
-    private void initializeForBlock(ItemIcon itemIcon, Block blockIngredient) {
-        itemIcon.setMesh(blockIngredient.getMeshGenerator().getStandaloneMesh());
-        itemIcon.setMeshTexture(Assets.getTexture("engine:terrain").get());
-        itemIcon.setTooltip(blockIngredient.getDisplayName());
-    }
-
     /**
      * Renders the paragraph.
      * <br>
      * The ingredients are drawn in a strip from left to right, followed by the result.
+     * Rendering does not allocate; the same region is reused for every icon.
      */
     @Override
     public void renderContents(Canvas canvas, Vector2i startPos, ContainerRenderSpace containerRenderSpace, int leftIndent, int rightIndent,
                                ParagraphRenderStyle defaultStyle, HorizontalAlign horizontalAlign, HyperlinkRegister hyperlinkRegister) {
-        int ingredientsCount = ingredientIcons.length;
-        int drawingWidth =
-                ingredientsCount * iconSize + (ingredientsCount - 1) * ingredientSpacing + resultSpacing + iconSize;
-        int x = startPos.x + horizontalAlign.getOffset(drawingWidth,
+        int x = startPos.x + horizontalAlign.getOffset(preferredWidth,
                 containerRenderSpace.getWidthForVerticalPosition(startPos.y));
-        int y = startPos.y + indentAbove;
+        int y = startPos.y + INDENT_ABOVE;
         for (int i = 0; i < ingredientIcons.length; i++) {
-            canvas.drawWidget(ingredientIcons[i], new Rectanglei(x, y).setSize(iconSize, iconSize));
-            x += iconSize + ingredientSpacing;
+            canvas.drawWidget(ingredientIcons[i], iconRegion.setMin(x, y).setSize(ICON_SIZE, ICON_SIZE));
+            x += ICON_SIZE + INGREDIENT_SPACING;
         }
-        x -= ingredientSpacing;
-        x += resultSpacing;
-        canvas.drawWidget(resultIcon, new Rectanglei(x, y).setSize(iconSize, iconSize));
+        x -= INGREDIENT_SPACING;
+        x += RESULT_SPACING;
+        canvas.drawWidget(resultIcon, iconRegion.setMin(x, y).setSize(ICON_SIZE, ICON_SIZE));
     }
 
     /**
@@ -154,7 +135,7 @@ public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
      */
     @Override
     public int getPreferredContentsHeight(ParagraphRenderStyle defaultStyle, int yStart, ContainerRenderSpace containerRenderSpace, int sideIndents) {
-        return getPreferredSize().y;
+        return HEIGHT;
     }
 
     /**
@@ -166,25 +147,6 @@ public class RecipeParagraph implements ParagraphData, ParagraphRenderable {
      */
     @Override
     public int getContentsMinWidth(ParagraphRenderStyle defaultStyle) {
-        return getPreferredSize().x;
-    }
-
-    /**
-     * Calculates the amount of space needed to display the recipe.
-     *
-     * @return A Vector2i whose x component is the width and y component is the height.
-     */
-    private Vector2i getPreferredSize() {
-        int x = 0;
-        int y = 0;
-
-        int ingredientsCount = ingredientIcons.length;
-        x += ingredientsCount * iconSize + (ingredientsCount - 1) * ingredientSpacing;
-        x += resultSpacing + iconSize;
-
-        y += iconSize;
-
-        y += indentAbove + indentBelow;
-        return new Vector2i(x, y);
+        return preferredWidth;
     }
 }
@@ -0,0 +1,69 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits the text of book pages into the terms used for searching.
+ * <br>
+ * A term is a run of letters and digits, compared case-insensitively. Well-formed markup tags such as
+ * <pre>{@code <recipe module:prefab>}</pre> are skipped, any other {@code <} is read as text.
+ */
+public final class SearchTerms {
+    private SearchTerms() {
+    }
+
+    /**
+     * Receives the terms of a text in the order in which they appear.
+     */
+    public interface TermHandler {
+        /**
+         * @param term The term in lower case.
+         * @param start The index of the first character of the term in the text.
+         * @param end The index after the last character of the term in the text.
+         */
+        void term(String term, int start, int end);
+    }
+
+    /**
+     * Reports all terms of a text.
+     *
+     * @param text The text to split.
+     * @param handler The handler receiving the terms.
+     */
+    public static void forEachTerm(CharSequence text, TermHandler handler) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                // A less-than sign which starts no tag is text, and the words after it are terms
+                int tagLength = Math.max(PageMarkup.getTagLength(text, i), PageMarkupTokenizer.getTagLength(text, i));
+                i += Math.max(1, tagLength);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                handler.term(text.subSequence(start, i).toString().toLowerCase(Locale.ROOT), start, i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Splits a search query into its terms.
+     *
+     * @param query The query, as typed by a player.
+     * @return The terms of the query, in order, possibly with duplicates.
+     */
+    public static List<String> parseQuery(String query) {
+        List<String> terms = new ArrayList<>();
+        forEachTerm(query, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+}
@@ -6,8 +6,10 @@ package org.terasology.books.logic;
 import com.google.common.collect.Lists;
 import org.terasology.engine.network.FieldReplicateType;
 import org.terasology.engine.network.Replicate;
+import org.terasology.engine.network.ReplicationCheck;
 import org.terasology.gestalt.entitysystem.component.Component;
 import org.terasology.nui.Color;
+import org.terasology.reflection.metadata.FieldMetadata;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +17,9 @@ import java.util.List;
 /**
  * Indicates that an item is a book, allowing it to be opened and read.
  */
-public class BookComponent implements Component<BookComponent> {
+public class BookComponent implements Component<BookComponent>, ReplicationCheck {
+
+    private static final String PAGES_FIELD = "pages";
 
     public enum BookType {
         Written,
@@ -23,6 +27,7 @@ public class BookComponent implements Component<BookComponent> {
     }
 
     /** The color used for the front and back cover of the book in the GUI. */
+    @Replicate
     public Color tint = Color.WHITE;
     public BookType type = BookType.Written;
 
@@ -33,17 +38,56 @@ public class BookComponent implements Component<BookComponent> {
     @Replicate
     public String title;
 
-    /** The list of pages in this book. Its length must be even or thing will explode. */
-    @Replicate(FieldReplicateType.OWNER_TO_SERVER)
+    /**
+     * The list of pages in this book. Its length must be even or thing will explode.
+     * <br>
+     * The pages are only replicated when a client first learns about the book, and not at all if {@link #streamPages}
+     * is set. Edits are sent as page-level events, see {@link BookEditServerSystem}.
+     * <br>
+     * Copies of a book share an immutable Guava list of pages from the {@link BookPageStore}, whose mutators such as
+     * {@code set(...)} throw an {@link UnsupportedOperationException}. To edit the pages, replace the list instead of
+     * modifying it. Pages must not be null, {@link BookPageStore#share} throws a {@link NullPointerException} for them.
+     */
+    @Replicate(value = FieldReplicateType.SERVER_TO_CLIENT, initialOnly = true)
     public List<String> pages = new ArrayList<>(Lists.newArrayList("", ""));
 
+    /** Incremented with every edit applied to the pages, so that edits based on outdated pages can be detected. */
+    @Replicate
+    public int version;
+
+    /**
+     * If this value is true, clients only receive the metadata of the book, such as its title, tint and page count.
+     * The pages are requested from the server while the book is being read, see {@link BookPageStreamClientSystem}.
+     */
+    @Replicate
+    public boolean streamPages;
+    /** The number of pages, kept up to date by the authority for clients which do not hold the pages. */
+    @Replicate
+    public int pageCount;
+
+    /**
+     * If this value is true, all pages are stored compressed, otherwise only pages longer than
+     * {@link BookPages#COMPRESSION_THRESHOLD}. Pages are decompressed when they are read.
+     */
+    @Replicate
+    public boolean compressPages;
+
     @Override
     public void copyFrom(BookComponent other) {
         this.tint = other.tint;
         this.type = other.type;
         this.readOnly = other.readOnly;
         this.title = other.title;
-        this.pages = Lists.newArrayList(other.pages);
+        this.pages = BookPageStore.share(other.pages);
+        this.version = other.version;
+        this.streamPages = other.streamPages;
+        this.pageCount = other.pageCount;
+        this.compressPages = other.compressPages;
+    }
+
+    @Override
+    public boolean shouldReplicate(FieldMetadata<?, ?> field, boolean initial, boolean toOwner) {
+        return !streamPages || !PAGES_FIELD.equals(field.getName());
     }
 
 }
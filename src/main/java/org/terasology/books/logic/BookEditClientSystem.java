@@ -0,0 +1,48 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.books.logic.events.BookPagesChangedEvent;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays the page edits broadcast by the authority on the local copy of a book.
+ * <br>
+ * The pages of a book are only replicated when the book first becomes known to a client; afterwards they are kept
+ * up to date by these events. Books with streamed pages are skipped.
+ */
+@RegisterSystem(RegisterMode.REMOTE_CLIENT)
+public class BookEditClientSystem extends BaseComponentSystem {
+
+    @ReceiveEvent
+    public void onPagesChanged(BookPagesChangedEvent event, EntityRef entity, BookComponent book) {
+        if (book.streamPages) {
+            // The local pages are not kept, see BookPageStreamClientSystem
+            return;
+        }
+        List<String> pages = new ArrayList<>(book.pages);
+        switch (event.getChange()) {
+            case SET_PAGE:
+                BookPages.setPage(pages, event.getPage(), event.getText());
+                break;
+            case INSERT_SPREAD:
+                BookPages.insertSpread(pages, event.getPage());
+                break;
+            case DELETE_SPREAD:
+                BookPages.deleteSpread(pages, event.getPage());
+                break;
+            default:
+                return;
+        }
+        book.pages = BookPageStore.share(pages);
+        book.version = Math.max(book.version, event.getVersion());
+        entity.saveComponent(book);
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.characters.CharacterComponent;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.InventorySlotChangedEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of which characters carry an item with an {@link EditBooksComponent}, so that opening a book does not
+ * have to look through the whole inventory.
+ * <br>
+ * The inventory of a character is read once when the character is loaded, afterwards only the changed slots are
+ * looked at. Clients do not receive slot changes made by the authority, only the changed inventory, which is read
+ * again in that case.
+ */
+@RegisterSystem(RegisterMode.ALWAYS)
+@Share(BookEditPermissionSystem.class)
+public class BookEditPermissionSystem extends BaseComponentSystem {
+    @In
+    private NetworkSystem networkSystem;
+
+    /* The editing items in the inventory of every character carrying at least one */
+    private final Map<Long, Set<Long>> editItemsByCharacter = new HashMap<>();
+
+    @ReceiveEvent(components = CharacterComponent.class)
+    public void onCharacterActivated(OnActivatedComponent event, EntityRef character, InventoryComponent inventory) {
+        readInventory(character, inventory);
+    }
+
+    @ReceiveEvent(components = CharacterComponent.class)
+    public void onInventoryChanged(OnChangedComponent event, EntityRef character, InventoryComponent inventory) {
+        if (!networkSystem.getMode().isAuthority()) {
+            readInventory(character, inventory);
+        }
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class, InventoryComponent.class})
+    public void onSlotChanged(InventorySlotChangedEvent event, EntityRef character) {
+        Set<Long> editItems = editItemsByCharacter.get(character.getId());
+        if (editItems != null && editItems.remove(event.getOldItem().getId()) && editItems.isEmpty()) {
+            editItemsByCharacter.remove(character.getId());
+        }
+        if (event.getNewItem().hasComponent(EditBooksComponent.class)) {
+            editItemsByCharacter.computeIfAbsent(character.getId(), id -> new HashSet<>()).add(event.getNewItem().getId());
+        }
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class, InventoryComponent.class})
+    public void onCharacterDeactivated(BeforeDeactivateComponent event, EntityRef character) {
+        editItemsByCharacter.remove(character.getId());
+    }
+
+    @Override
+    public void shutdown() {
+        editItemsByCharacter.clear();
+    }
+
+    /**
+     * Checks whether a character carries an item which allows editing books.
+     *
+     * @param character The character entity.
+     * @return Whether the character can edit books which are not read-only.
+     */
+    public boolean canEditBooks(EntityRef character) {
+        return editItemsByCharacter.containsKey(character.getId());
+    }
+
+    private void readInventory(EntityRef character, InventoryComponent inventory) {
+        Set<Long> editItems = new HashSet<>();
+        for (EntityRef item : inventory.itemSlots) {
+            if (item.hasComponent(EditBooksComponent.class)) {
+                editItems.add(item.getId());
+            }
+        }
+        if (editItems.isEmpty()) {
+            editItemsByCharacter.remove(character.getId());
+        } else {
+            editItemsByCharacter.put(character.getId(), editItems);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.books.logic.events.BookEditRejectedEvent;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.Console;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Tells the player when the authority rejected an edit of a book, and replaces the local pages of the book with the
+ * current ones, so that the book screen can show them again.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+@Share(BookEditRejectionSystem.class)
+public class BookEditRejectionSystem extends BaseComponentSystem {
+    @In
+    private Console console;
+    @In
+    private NetworkSystem networkSystem;
+
+    private Consumer<EntityRef> editRejectedListener = book -> { };
+    /* The book and version of the last rejection, as every edit of a save based on the same version is rejected */
+    private long lastRejectedBook;
+    private int lastRejectedVersion = -1;
+
+    /**
+     * Sets the listener called with the book entity whenever an edit of it was rejected, after its pages are updated.
+     *
+     * @param listener The new listener.
+     */
+    public void setEditRejectedListener(Consumer<EntityRef> listener) {
+        editRejectedListener = listener;
+    }
+
+    @ReceiveEvent
+    public void onEditRejected(BookEditRejectedEvent event, EntityRef entity, BookComponent book) {
+        if (entity.getId() == lastRejectedBook && event.getVersion() == lastRejectedVersion) {
+            return;
+        }
+        lastRejectedBook = entity.getId();
+        lastRejectedVersion = event.getVersion();
+        // The authority has the current pages already; clients of books with streamed pages request them when needed
+        if (!networkSystem.getMode().isAuthority() && !book.streamPages && event.getVersion() >= book.version) {
+            book.pages = BookPageStore.share(event.getPages());
+            book.pageCount = book.pages.size();
+            book.version = event.getVersion();
+            entity.saveComponent(book);
+        }
+        String title = book.title != null ? book.title : "the book";
+        console.addMessage("Your changes to " + title + " could not be saved, as " + event.getReason() + ".");
+        editRejectedListener.accept(entity);
+    }
+}
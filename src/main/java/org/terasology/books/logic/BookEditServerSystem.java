@@ -0,0 +1,161 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.logic.events.BookEditRejectedEvent;
+import org.terasology.books.logic.events.BookPagesChangedEvent;
+import org.terasology.books.logic.events.DeleteBookSpreadEvent;
+import org.terasology.books.logic.events.InsertBookSpreadEvent;
+import org.terasology.books.logic.events.SetBookPageEvent;
+import org.terasology.books.logic.events.SetBookPagesEvent;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies page-level edits requested by clients and broadcasts only the changed pages to everybody else.
+ * <br>
+ * Every edit carries the version of the book it is based on. Edits based on an outdated version are rejected,
+ * as the page indices they refer to might have moved in the meantime. The client is told about every rejected edit
+ * with a {@link BookEditRejectedEvent}, so that it can show the current pages again.
+ * The pages are shared with other copies of the book, so every edit works on a copy of the page list.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class BookEditServerSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookEditServerSystem.class);
+
+    @ReceiveEvent
+    public void onSetPage(SetBookPageEvent event, EntityRef entity, BookComponent book) {
+        if (!isApplicable(event.getVersion(), entity, book) || !isValidText(event.getText(), entity, book)) {
+            return;
+        }
+        List<String> pages = new ArrayList<>(book.pages);
+        String page = BookPages.store(book, event.getText());
+        if (BookPages.setPage(pages, event.getPage(), page)) {
+            commit(entity, book, pages, BookPagesChangedEvent.Change.SET_PAGE, event.getPage(), page);
+        } else {
+            reject(entity, book, "there is no page " + (event.getPage() + 1));
+        }
+    }
+
+    /**
+     * Applies a batch of page changes as a single edit, so that the component is only saved once.
+     */
+    @ReceiveEvent
+    public void onSetPages(SetBookPagesEvent event, EntityRef entity, BookComponent book) {
+        if (!isApplicable(event.getVersion(), entity, book)) {
+            return;
+        }
+        if (event.getPages().size() != event.getTexts().size()) {
+            reject(entity, book, "the edit is incomplete");
+            return;
+        }
+        for (String text : event.getTexts()) {
+            if (!isValidText(text, entity, book)) {
+                return;
+            }
+        }
+        List<String> pages = new ArrayList<>(book.pages);
+        List<String> storedPages = new ArrayList<>(event.getTexts().size());
+        for (int i = 0; i < event.getPages().size(); i++) {
+            String page = BookPages.store(book, event.getTexts().get(i));
+            if (!BookPages.setPage(pages, event.getPages().get(i), page)) {
+                logger.warn("Rejected edit of book {} with invalid page {}", entity, event.getPages().get(i));
+                reject(entity, book, "there is no page " + (event.getPages().get(i) + 1));
+                return;
+            }
+            storedPages.add(page);
+        }
+        save(entity, book, pages);
+        for (int i = 0; i < storedPages.size(); i++) {
+            broadcast(entity, book, BookPagesChangedEvent.Change.SET_PAGE, event.getPages().get(i), storedPages.get(i));
+        }
+    }
+
+    @ReceiveEvent
+    public void onInsertSpread(InsertBookSpreadEvent event, EntityRef entity, BookComponent book) {
+        if (!isApplicable(event.getVersion(), entity, book)) {
+            return;
+        }
+        List<String> pages = new ArrayList<>(book.pages);
+        if (BookPages.insertSpread(pages, event.getPage())) {
+            commit(entity, book, pages, BookPagesChangedEvent.Change.INSERT_SPREAD, event.getPage(), null);
+        } else {
+            reject(entity, book, "pages cannot be inserted there");
+        }
+    }
+
+    @ReceiveEvent
+    public void onDeleteSpread(DeleteBookSpreadEvent event, EntityRef entity, BookComponent book) {
+        if (!isApplicable(event.getVersion(), entity, book)) {
+            return;
+        }
+        List<String> pages = new ArrayList<>(book.pages);
+        if (BookPages.deleteSpread(pages, event.getPage())) {
+            commit(entity, book, pages, BookPagesChangedEvent.Change.DELETE_SPREAD, event.getPage(), null);
+        } else {
+            reject(entity, book, "these pages cannot be deleted");
+        }
+    }
+
+    private boolean isApplicable(int version, EntityRef entity, BookComponent book) {
+        if (book.readOnly) {
+            logger.warn("Rejected edit of read-only book {}", entity);
+            reject(entity, book, "the book is read-only");
+            return false;
+        }
+        if (version != book.version) {
+            logger.warn("Rejected edit of book {} based on version {}, current version is {}", entity, version, book.version);
+            reject(entity, book, "the book was changed in the meantime");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the text of a page sent by a client. Pages are sent as plain text, so a text starting with the marker of
+     * compressed pages would be stored as it is and taken for a compressed page later. The marker cannot be typed.
+     */
+    private boolean isValidText(String text, EntityRef entity, BookComponent book) {
+        if (text == null || BookPages.isCompressed(text)) {
+            logger.warn("Rejected edit of book {} with invalid page text", entity);
+            reject(entity, book, "the text of a page is invalid");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tells the owner of the book that an edit was not applied, sending the current pages to replace the local ones.
+     */
+    private void reject(EntityRef entity, BookComponent book, String reason) {
+        // Clients of books with streamed pages request the current pages when they need them
+        List<String> pages = book.streamPages ? new ArrayList<>() : new ArrayList<>(book.pages);
+        entity.send(new BookEditRejectedEvent(book.version, pages, reason));
+    }
+
+    private void commit(EntityRef entity, BookComponent book, List<String> pages, BookPagesChangedEvent.Change change,
+                        int page, String text) {
+        save(entity, book, pages);
+        broadcast(entity, book, change, page, text);
+    }
+
+    private void save(EntityRef entity, BookComponent book, List<String> pages) {
+        book.pages = BookPageStore.share(pages);
+        book.version++;
+        book.pageCount = book.pages.size();
+        entity.saveComponent(book);
+    }
+
+    private void broadcast(EntityRef entity, BookComponent book, BookPagesChangedEvent.Change change, int page, String text) {
+        // Clients of books with streamed pages request the text when they need it
+        entity.send(new BookPagesChangedEvent(book.version, change, page, book.streamPages ? null : text));
+    }
+}
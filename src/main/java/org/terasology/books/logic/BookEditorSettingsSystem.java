@@ -0,0 +1,32 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.books.rendering.nui.layers.BookScreen;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.permission.PermissionManager;
+
+/**
+ * Changes the settings of the book editor through the console.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+public class BookEditorSettingsSystem extends BaseComponentSystem {
+    @Command(shortDescription = "Sets how many edits of a book can be undone",
+            helpText = "Sets the maximum number of characters of edits that are kept to be undone while a book is open. "
+                    + "The oldest edits are forgotten first. Without an argument, shows the current limit.",
+            requiredPermission = PermissionManager.NO_PERMISSION)
+    public String bookUndoLimit(@CommandParam(value = "characters", required = false) Integer characters) {
+        if (characters == null) {
+            return "Up to " + BookScreen.getUndoLimit() + " characters of edits can be undone";
+        }
+        if (characters < 0) {
+            return "The limit cannot be negative";
+        }
+        BookScreen.setUndoLimit(characters);
+        return "Up to " + characters + " characters of edits can be undone now";
+    }
+}
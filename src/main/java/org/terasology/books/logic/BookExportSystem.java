@@ -0,0 +1,97 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.PathManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.Sender;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.module.inventory.components.InventoryComponent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Archives the books of a bookcase as prefabs, see {@link BookPrefabWriter}.
+ * <br>
+ * The prefabs are written to a folder per bookcase in the {@value #EXPORT_FOLDER} folder of the game's home directory.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class BookExportSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookExportSystem.class);
+
+    private static final String EXPORT_FOLDER = "books/exports";
+    private static final String PREFAB_EXTENSION = ".prefab";
+    /* How far away the bookcase to export can be */
+    private static final float MAX_REACH = 8;
+
+    @In
+    private BookcaseCatalogSystem catalog;
+
+    @Command(shortDescription = "Exports the books of the nearest bookcase as prefabs",
+            helpText = "Writes every book of the nearest bookcase within reach to a prefab file "
+                    + "in the books/exports folder of the game's home directory.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String exportBookcase(@Sender EntityRef client) {
+        EntityRef character = client.getComponent(ClientComponent.class).character;
+        LocationComponent location = character.getComponent(LocationComponent.class);
+        if (location == null) {
+            return "You are nowhere";
+        }
+        EntityRef bookcase = catalog.findNearestBookcase(location.getWorldPosition(new Vector3f()), MAX_REACH);
+        InventoryComponent inventory = bookcase.getComponent(InventoryComponent.class);
+        LocationComponent bookcaseLocation = bookcase.getComponent(LocationComponent.class);
+        if (inventory == null || bookcaseLocation == null) {
+            return "There is no bookcase nearby";
+        }
+
+        Vector3f bookcasePosition = bookcaseLocation.getWorldPosition(new Vector3f());
+        Path folder = PathManager.getInstance().getHomePath().resolve(EXPORT_FOLDER).resolve(String.format("bookcase_%d_%d_%d",
+                (int) Math.floor(bookcasePosition.x()), (int) Math.floor(bookcasePosition.y()), (int) Math.floor(bookcasePosition.z())));
+        int exported = 0;
+        try {
+            Files.createDirectories(folder);
+            // The slots are read directly, as they are what is in the bookcase, in the order of its shelves
+            for (EntityRef book : inventory.itemSlots) {
+                if (book.hasComponent(BookComponent.class)) {
+                    exported++;
+                    Path file = folder.resolve(toFileName(exported, BookSearchSystem.getTitle(book)));
+                    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                        BookPrefabWriter.write(book, writer);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not export books to {}", folder, e);
+            return "Could not export the books: " + e.getMessage();
+        }
+        return "Exported " + exported + " books to " + folder;
+    }
+
+    /**
+     * Turns the title of a book into the name of a prefab file, which must only consist of letters and digits.
+     */
+    private static String toFileName(int number, String title) {
+        StringBuilder name = new StringBuilder("book").append(number);
+        for (char c : title.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c) && c < 128) {
+                name.append(c);
+            }
+        }
+        return name.append(PREFAB_EXTENSION).toString();
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.BookTextImporter;
+import org.terasology.engine.core.PathManager;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.console.commandSystem.annotations.Sender;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.module.inventory.systems.InventoryManager;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates books from text files, e.g. to publish the rules of a server in game.
+ * <br>
+ * Files are imported from the {@value #IMPORT_FOLDER} folder in the home directory of the game. The pages are stored
+ * as they are read, compressed if they are long, see {@link BookPages#store}.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(BookImportSystem.class)
+public class BookImportSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookImportSystem.class);
+
+    private static final String IMPORT_FOLDER = "books";
+    private static final String BOOK_PREFAB = "Books:book";
+    /* Only the first problems are shown in the console, all of them are logged */
+    private static final int MAX_REPORTED_PROBLEMS = 10;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private PrefabManager prefabManager;
+    @In
+    private InventoryManager inventoryManager;
+
+    /**
+     * Creates a book from a text. Pages are split off while the text is read.
+     *
+     * @param reader The text of the book, with recipes and chapters as in the book screen.
+     * @param title The title of the book.
+     * @param problems Receives a description of every malformed tag and unknown recipe.
+     * @return The new book item.
+     * @throws IOException If the text cannot be read.
+     */
+    public EntityRef importBook(Reader reader, String title, List<String> problems) throws IOException {
+        EntityRef item = entityManager.create(BOOK_PREFAB);
+        BookComponent book = item.getComponent(BookComponent.class);
+        List<String> pages = new ArrayList<>();
+        try {
+            BookTextImporter.importText(reader, page -> pages.add(BookPages.store(book, page)), this::resolveRecipe, problems::add);
+        } catch (IOException e) {
+            item.destroy();
+            throw e;
+        }
+        book.title = title;
+        book.pages = BookPageStore.share(pages);
+        book.pageCount = pages.size();
+        book.version++;
+        item.saveComponent(book);
+        return item;
+    }
+
+    @Command(shortDescription = "Creates a book from a text file",
+            helpText = "Creates a book from a text file in the books folder of the game's home directory and gives it to you. "
+                    + "The title defaults to the name of the file.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String importBook(@Sender EntityRef client, @CommandParam("file") String fileName,
+                             @CommandParam(value = "title", required = false) String title) {
+        Path folder = PathManager.getInstance().getHomePath().resolve(IMPORT_FOLDER).normalize();
+        Path file = folder.resolve(fileName).normalize();
+        if (!file.startsWith(folder) || !Files.isRegularFile(file)) {
+            return "There is no file '" + fileName + "' in " + folder;
+        }
+        List<String> problems = new ArrayList<>();
+        EntityRef item;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            item = importBook(reader, title != null ? title : file.getFileName().toString(), problems);
+        } catch (IOException e) {
+            logger.error("Could not import book {}", file, e);
+            return "Could not read " + file + ": " + e.getMessage();
+        }
+        for (String problem : problems) {
+            logger.warn("{} of imported book {}", problem, file);
+        }
+
+        EntityRef character = client.getComponent(ClientComponent.class).character;
+        if (!inventoryManager.giveItem(character, EntityRef.NULL, item)) {
+            item.destroy();
+            return "Your inventory is full";
+        }
+        StringBuilder result = new StringBuilder();
+        result.append("Imported ").append(item.getComponent(BookComponent.class).pageCount).append(" pages\n");
+        for (int i = 0; i < problems.size() && i < MAX_REPORTED_PROBLEMS; i++) {
+            result.append(problems.get(i)).append('\n');
+        }
+        if (problems.size() > MAX_REPORTED_PROBLEMS) {
+            result.append("and ").append(problems.size() - MAX_REPORTED_PROBLEMS).append(" more problems, see the log\n");
+        }
+        return result.toString();
+    }
+
+    private BookRecipeComponent resolveRecipe(String prefabName) {
+        Prefab recipePrefab = prefabManager.getPrefab(prefabName);
+        if (recipePrefab == null) {
+            return null;
+        }
+        return recipePrefab.getComponent(BookRecipeComponent.class);
+    }
+}
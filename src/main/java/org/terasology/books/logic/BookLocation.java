@@ -0,0 +1,37 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+/**
+ * A book stored in a bookcase, as found in the {@link BookcaseCatalogSystem}.
+ */
+public final class BookLocation {
+    private final EntityRef book;
+    private final EntityRef bookcase;
+    private final Vector3f position;
+
+    public BookLocation(EntityRef book, EntityRef bookcase, Vector3fc position) {
+        this.book = book;
+        this.bookcase = bookcase;
+        this.position = new Vector3f(position);
+    }
+
+    public EntityRef getBook() {
+        return book;
+    }
+
+    public EntityRef getBookcase() {
+        return bookcase;
+    }
+
+    /**
+     * @return The world position of the bookcase.
+     */
+    public Vector3fc getPosition() {
+        return position;
+    }
+}
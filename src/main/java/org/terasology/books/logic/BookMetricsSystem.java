@@ -0,0 +1,53 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.BookMetrics;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.permission.PermissionManager;
+
+/**
+ * Controls the {@link BookMetrics} of the book screen through the console, and logs them when the game ends.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+public class BookMetricsSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookMetricsSystem.class);
+
+    @Override
+    public void shutdown() {
+        if (BookMetrics.isEnabled()) {
+            logger.info("Book metrics:\n{}", BookMetrics.report());
+        }
+    }
+
+    @Command(shortDescription = "Shows how long reading and editing books takes",
+            helpText = "Without an argument, shows and logs the recorded book metrics. "
+                    + "Use 'on' or 'off' to start or stop recording and 'reset' to drop the recorded values.",
+            requiredPermission = PermissionManager.NO_PERMISSION)
+    public String bookMetrics(@CommandParam(value = "action", required = false) String action) {
+        if ("on".equals(action)) {
+            BookMetrics.setEnabled(true);
+            return "Recording book metrics";
+        }
+        if ("off".equals(action)) {
+            BookMetrics.setEnabled(false);
+            return "Stopped recording book metrics";
+        }
+        if ("reset".equals(action)) {
+            BookMetrics.reset();
+            return "Dropped the recorded book metrics";
+        }
+        if (action != null) {
+            return "Unknown action '" + action + "', use on, off or reset";
+        }
+        String report = BookMetrics.report();
+        logger.info("Book metrics:\n{}", report);
+        return (BookMetrics.isEnabled() ? "" : "Recording is off, use 'bookMetrics on' to start it\n") + report;
+    }
+}
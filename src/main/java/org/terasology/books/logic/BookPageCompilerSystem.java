@@ -0,0 +1,144 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.BookPaginator;
+import org.terasology.books.CompiledPage;
+import org.terasology.books.DocumentCache;
+import org.terasology.books.IngredientIconCache;
+import org.terasology.books.PageDocuments;
+import org.terasology.books.PagePrefetcher;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles the pages of all book prefabs once, when the game starts, so that reading them needs no recipe lookups.
+ * <br>
+ * Pages are looked up by their text, so every book entity created from a prefab uses the compiled pages of that prefab
+ * until it is edited. Broken recipe references are reported here, once per prefab page.
+ * <br>
+ * Also holds the parsed pages, the page prefetcher and the paginator of the book screen, as they refer to assets of
+ * the game and have to be dropped when it shuts down.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+@Share(BookPageCompilerSystem.class)
+public class BookPageCompilerSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookPageCompilerSystem.class);
+    /* Number of parsed pages kept around, so that flipping back and forth does not parse them again */
+    private static final int DOCUMENT_CACHE_SIZE = 64;
+
+    @In
+    private PrefabManager prefabManager;
+
+    /* Read from the page prefetching thread, hence concurrent */
+    private final Map<String, CompiledPage> compiledPages = new ConcurrentHashMap<>();
+    /* The recipes looked up so far by their prefab name, including the ones which do not exist */
+    private final Map<String, Optional<BookRecipeComponent>> recipes = new HashMap<>();
+
+    private final DocumentCache documentCache = new DocumentCache(DOCUMENT_CACHE_SIZE);
+    private final PagePrefetcher prefetcher = new PagePrefetcher(documentCache,
+            text -> PageDocuments.compilePage(text, this::getCompiledPage),
+            page -> PageDocuments.createDocument(page, Collections.emptySet(), this::resolveRecipe));
+    /* Created by the book screen when a page overflows for the first time, as it needs the font of the skin */
+    private BookPaginator paginator;
+
+    @Override
+    public void postBegin() {
+        for (Prefab prefab : prefabManager.listPrefabs(BookComponent.class)) {
+            BookComponent book = prefab.getComponent(BookComponent.class);
+            for (int i = 0; i < book.pages.size(); i++) {
+                String text = BookPages.decompress(book.pages.get(i));
+                if (text.isEmpty() || compiledPages.containsKey(text)) {
+                    continue;
+                }
+                int page = i;
+                compiledPages.put(text, CompiledPage.compile(text, this::resolveRecipe,
+                        problem -> logger.warn("{} on page {} of book {}", problem, page, prefab.getName())));
+            }
+        }
+        logger.debug("Compiled {} book pages", compiledPages.size());
+    }
+
+    @Override
+    public void shutdown() {
+        compiledPages.clear();
+        recipes.clear();
+        // Parsed pages, icons and the paginator refer to assets of the game which is shutting down
+        documentCache.clear();
+        paginator = null;
+        prefetcher.shutdown();
+        IngredientIconCache.clear();
+    }
+
+    /**
+     * Gets the cache of parsed pages, e.g. to inspect its hit and miss counters.
+     *
+     * @return The document cache shared by all book screens.
+     */
+    public DocumentCache getDocumentCache() {
+        return documentCache;
+    }
+
+    /**
+     * @return The prefetcher which puts the pages around the visible one into the {@link #getDocumentCache() cache}.
+     */
+    public PagePrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * @return The paginator of the book screen, or null if it has not been created yet.
+     */
+    public BookPaginator getPaginator() {
+        return paginator;
+    }
+
+    /**
+     * Keeps the paginator of the book screen until the game shuts down.
+     *
+     * @param paginator The paginator, which measures text with the font of the book screen.
+     */
+    public void setPaginator(BookPaginator paginator) {
+        this.paginator = paginator;
+    }
+
+    /**
+     * Gets the compiled version of a page of a book prefab. Safe to call from any thread.
+     *
+     * @param text The text of the page.
+     * @return The compiled page, or null if the text is not a page of any book prefab.
+     */
+    public CompiledPage getCompiledPage(String text) {
+        return compiledPages.get(text);
+    }
+
+    /**
+     * Looks up the recipe referred to by a recipe tag. The result is remembered, also if there is no such recipe.
+     * Must be called on the game thread.
+     *
+     * @param prefabName The name of the recipe prefab.
+     * @return The recipe, or null if there is no such prefab or it is not a recipe.
+     */
+    public BookRecipeComponent resolveRecipe(String prefabName) {
+        return recipes.computeIfAbsent(prefabName, name -> {
+            Prefab recipePrefab = prefabManager.getPrefab(name);
+            if (recipePrefab == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(recipePrefab.getComponent(BookRecipeComponent.class));
+        }).orElse(null);
+    }
+}
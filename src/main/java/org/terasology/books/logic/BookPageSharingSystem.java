@@ -0,0 +1,24 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+/**
+ * Moves the pages of books loaded from a save game or received over the network into the {@link BookPageStore},
+ * so that they share their pages with all other books containing the same text.
+ */
+@RegisterSystem(RegisterMode.ALWAYS)
+public class BookPageSharingSystem extends BaseComponentSystem {
+
+    @ReceiveEvent
+    public void onBookActivated(OnActivatedComponent event, EntityRef entity, BookComponent book) {
+        // The content does not change, so there is no need to save the component
+        book.pages = BookPageStore.share(book.pages);
+    }
+}
@@ -0,0 +1,43 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.List;
+
+/**
+ * Shared, content-addressed storage for the pages of books.
+ * <br>
+ * Pages with the same text are stored once, no matter how many books contain them, and the page lists of books
+ * are immutable, so that copies of a book can share them. Editing a page copies the list of the edited book only.
+ * Pages no longer referenced by any book are garbage collected.
+ */
+public final class BookPageStore {
+    private static final Interner<String> PAGES = Interners.newWeakInterner();
+
+    private BookPageStore() {
+    }
+
+    /**
+     * Gets an immutable list of the given pages which can be shared between books.
+     * <br>
+     * A list which was already returned by this method is returned as is, so sharing is free for copies of a book.
+     *
+     * @param pages The pages of a book.
+     * @return An immutable list with the stored instance of every page.
+     * @throws NullPointerException If a page is null.
+     */
+    public static List<String> share(List<String> pages) {
+        if (pages instanceof ImmutableList) {
+            return pages;
+        }
+        ImmutableList.Builder<String> shared = ImmutableList.builderWithExpectedSize(pages.size());
+        for (String page : pages) {
+            shared.add(PAGES.intern(page));
+        }
+        return shared.build();
+    }
+}
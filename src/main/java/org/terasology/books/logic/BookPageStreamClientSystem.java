@@ -0,0 +1,211 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.books.logic.events.BookPagesChangedEvent;
+import org.terasology.books.logic.events.BookPagesResponseEvent;
+import org.terasology.books.logic.events.RequestBookPagesEvent;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Requests pages of books whose pages are not replicated from the server and keeps recently read pages in a bounded cache.
+ * <br>
+ * Cached pages are keyed by the version of the book, so pages of outdated versions are never shown and simply age out.
+ * Pages which are not received within {@value #REQUEST_TIMEOUT_MS} milliseconds are requested again when needed.
+ * The newest version of every book is tracked, so that readers of a book which is edited while open can request
+ * the pages of the new version.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+@Share(BookPageStreamClientSystem.class)
+public class BookPageStreamClientSystem extends BaseComponentSystem {
+    private static final int CACHE_SIZE = 512;
+    private static final long REQUEST_TIMEOUT_MS = 5000;
+
+    @In
+    private LocalPlayer localPlayer;
+    @In
+    private NetworkSystem networkSystem;
+    @In
+    private Time time;
+
+    private final Map<PageKey, String> cache = new LinkedHashMap<PageKey, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PageKey, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    /* The time at which each page was requested which has not been received yet */
+    private final Map<PageKey, Long> requested = new HashMap<>();
+    /* The newest version of each book learned from edits and responses, which may be ahead of the replicated one */
+    private final Map<Long, Integer> latestVersions = new HashMap<>();
+    private Consumer<EntityRef> pagesReceivedListener = book -> { };
+
+    /**
+     * Checks whether the pages of a book have to be requested from the server.
+     * <br>
+     * Books which were never edited still have the pages of their prefab, which the client knows already.
+     *
+     * @param book The book to check.
+     * @return True if the local pages of the book cannot be used.
+     */
+    public boolean isStreamed(BookComponent book) {
+        return book.streamPages && book.version > 0 && !networkSystem.getMode().isAuthority();
+    }
+
+    /**
+     * Gets the newest version of a book the client knows of, to get and request its current pages.
+     *
+     * @param book The book entity.
+     * @return The newest version of the book.
+     */
+    public int getLatestVersion(EntityRef book) {
+        BookComponent component = book.getComponent(BookComponent.class);
+        int version = component != null ? component.version : 0;
+        return Math.max(version, latestVersions.getOrDefault(book.getId(), version));
+    }
+
+    /**
+     * Gets a page from the cache.
+     *
+     * @param book The book entity.
+     * @param version The version of the book.
+     * @param page The index of the page.
+     * @return The text of the page, or null if it has not been received yet.
+     */
+    public String getPage(EntityRef book, int version, int page) {
+        return cache.get(new PageKey(book.getId(), version, page));
+    }
+
+    /**
+     * Requests the pages of a range which are neither cached nor already requested. Pages whose request timed out
+     * are requested again.
+     *
+     * @param book The book entity.
+     * @param version The version of the book.
+     * @param firstPage The index of the first page of the range.
+     * @param lastPage The index of the last page of the range, inclusive.
+     */
+    public void requestPages(EntityRef book, int version, int firstPage, int lastPage) {
+        long now = time.getRealTimeInMs();
+        requested.values().removeIf(requestTime -> now - requestTime > REQUEST_TIMEOUT_MS);
+        int first = -1;
+        int last = -1;
+        for (int page = firstPage; page <= lastPage; page++) {
+            PageKey key = new PageKey(book.getId(), version, page);
+            if (!cache.containsKey(key) && requested.putIfAbsent(key, now) == null) {
+                if (first == -1) {
+                    first = page;
+                }
+                last = page;
+            }
+        }
+        if (first != -1) {
+            localPlayer.getCharacterEntity().send(new RequestBookPagesEvent(book, first, last - first + 1));
+        }
+    }
+
+    /**
+     * Forgets the outstanding requests for pages of a book, e.g. when it is closed, so that they are requested
+     * again when it is opened the next time.
+     *
+     * @param book The book entity.
+     */
+    public void cancelRequests(EntityRef book) {
+        long bookId = book.getId();
+        requested.keySet().removeIf(key -> key.bookId == bookId);
+    }
+
+    /**
+     * Sets the listener called with the book entity whenever pages of it have been received, or it has been edited.
+     *
+     * @param listener The new listener.
+     */
+    public void setPagesReceivedListener(Consumer<EntityRef> listener) {
+        pagesReceivedListener = listener;
+    }
+
+    @ReceiveEvent
+    public void onPagesReceived(BookPagesResponseEvent event, EntityRef entity) {
+        long bookId = event.getBook().getId();
+        latestVersions.merge(bookId, event.getVersion(), Math::max);
+        List<String> pages = event.getPages();
+        for (int i = 0; i < pages.size(); i++) {
+            PageKey key = new PageKey(bookId, event.getVersion(), event.getFirstPage() + i);
+            requested.remove(key);
+            cache.put(key, pages.get(i));
+        }
+        pagesReceivedListener.accept(event.getBook());
+    }
+
+    @ReceiveEvent
+    public void onPagesChanged(BookPagesChangedEvent event, EntityRef entity, BookComponent book) {
+        if (book.streamPages) {
+            latestVersions.merge(entity.getId(), event.getVersion(), Math::max);
+            pagesReceivedListener.accept(entity);
+        }
+    }
+
+    /**
+     * Tells the listener about the replicated version and page count of books with streamed pages, which may arrive
+     * after the edit they result from.
+     */
+    @ReceiveEvent
+    public void onBookChanged(OnChangedComponent event, EntityRef entity, BookComponent book) {
+        if (book.streamPages) {
+            pagesReceivedListener.accept(entity);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        cache.clear();
+        requested.clear();
+        latestVersions.clear();
+    }
+
+    private static final class PageKey {
+        private final long bookId;
+        private final int version;
+        private final int page;
+
+        PageKey(long bookId, int version, int page) {
+            this.bookId = bookId;
+            this.version = version;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PageKey other = (PageKey) o;
+            return bookId == other.bookId && version == other.version && page == other.page;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookId, version, page);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.logic.events.BookPagesResponseEvent;
+import org.terasology.books.logic.events.RequestBookPagesEvent;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.characters.CharacterComponent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers requests of clients for pages of books whose pages are not replicated, see {@link BookComponent#streamPages}.
+ * <br>
+ * Clients send their requests to their character, see {@link RequestBookPagesEvent}. Pages are only sent back to
+ * that character, and only if it carries the book, or the book or the container holding it is within reach.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class BookPageStreamServerSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookPageStreamServerSystem.class);
+
+    /* Upper bound for a single response, so that one request cannot make the server send a whole book */
+    private static final int MAX_PAGES_PER_REQUEST = 16;
+    /* How far away from a book a character can be to read it */
+    private static final float MAX_REACH = 8;
+    /* How many owners up from the book are checked, e.g. a bag in the inventory of the character */
+    private static final int MAX_OWNER_DEPTH = 4;
+
+    /**
+     * Makes sure the replicated page count matches the pages, e.g. for books created from prefabs,
+     * and compresses the pages which should be stored compressed.
+     */
+    @ReceiveEvent
+    public void onBookActivated(OnActivatedComponent event, EntityRef entity, BookComponent book) {
+        boolean changed = false;
+        List<String> pages = new ArrayList<>(book.pages);
+        for (int i = 0; i < pages.size(); i++) {
+            String page = BookPages.store(book, pages.get(i));
+            if (!page.equals(pages.get(i))) {
+                pages.set(i, page);
+                changed = true;
+            }
+        }
+        if (changed) {
+            book.pages = BookPageStore.share(pages);
+        }
+        if (changed || book.pageCount != book.pages.size()) {
+            book.pageCount = book.pages.size();
+            entity.saveComponent(book);
+        }
+    }
+
+    @ReceiveEvent(components = CharacterComponent.class)
+    public void onRequestPages(RequestBookPagesEvent event, EntityRef character) {
+        EntityRef entity = event.getBook();
+        BookComponent book = entity.getComponent(BookComponent.class);
+        if (book == null || !canRead(character, entity)) {
+            logger.warn("{} requested pages of {}, which it cannot read", character, entity);
+            return;
+        }
+        int first = Math.max(0, event.getFirstPage());
+        int last = Math.min(book.pages.size(), first + Math.min(event.getPageCount(), MAX_PAGES_PER_REQUEST));
+        if (first >= last) {
+            return;
+        }
+        character.send(new BookPagesResponseEvent(entity, book.version, first,
+                new ArrayList<>(book.pages.subList(first, last))));
+    }
+
+    /**
+     * Checks whether a character carries a book, or the book or the container holding it is within reach.
+     */
+    private boolean canRead(EntityRef character, EntityRef book) {
+        if (!character.exists()) {
+            return false;
+        }
+        EntityRef holder = book;
+        for (int depth = 0; depth <= MAX_OWNER_DEPTH; depth++) {
+            if (holder.equals(character)) {
+                return true;
+            }
+            EntityRef owner = holder.getOwner();
+            if (!owner.exists()) {
+                break;
+            }
+            holder = owner;
+        }
+        // The outermost holder is in the world, e.g. a bookcase or the book itself lying on the ground
+        LocationComponent holderLocation = holder.getComponent(LocationComponent.class);
+        LocationComponent characterLocation = character.getComponent(LocationComponent.class);
+        if (holderLocation == null || characterLocation == null) {
+            return false;
+        }
+        Vector3f holderPosition = holderLocation.getWorldPosition(new Vector3f());
+        return holderPosition.isFinite()
+                && holderPosition.distance(characterLocation.getWorldPosition(new Vector3f())) <= MAX_REACH;
+    }
+}
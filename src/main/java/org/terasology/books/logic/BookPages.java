@@ -0,0 +1,158 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Page-level edits of a book, shared by the editing screen, the authority applying edits and the clients
+ * replaying them, so that all of them end up with the same pages.
+ * <br>
+ * Pages are always inserted and deleted as a spread of two, which keeps the page count even.
+ * <br>
+ * Long pages, or all pages of a book with {@link BookComponent#compressPages} set, are stored compressed.
+ * A compressed page starts with a marker character which cannot be typed, followed by the deflated text in Base64.
+ * Use {@link #decompress(String)} to read the text of a stored page.
+ */
+public final class BookPages {
+    /** Pages longer than this are compressed even if the book does not ask for it. */
+    public static final int COMPRESSION_THRESHOLD = 4096;
+
+    private static final Logger logger = LoggerFactory.getLogger(BookPages.class);
+    private static final char COMPRESSED_MARKER = '\u0001';
+
+    private BookPages() {
+    }
+
+    /**
+     * Converts the text of a page into the form in which it is stored in the given book.
+     *
+     * @param book The book the page belongs to.
+     * @param text The text of the page.
+     * @return The compressed page if the book or the length of the text asks for it, otherwise the text itself.
+     */
+    public static String store(BookComponent book, String text) {
+        if (isCompressed(text) || !book.compressPages && text.length() <= COMPRESSION_THRESHOLD) {
+            return text;
+        }
+        return compress(text);
+    }
+
+    /**
+     * @param page A page as stored in a book.
+     * @return True if the page is stored compressed.
+     */
+    public static boolean isCompressed(String page) {
+        return !page.isEmpty() && page.charAt(0) == COMPRESSED_MARKER;
+    }
+
+    /**
+     * Compresses the text of a page.
+     *
+     * @param text The text of the page.
+     * @return The compressed page.
+     */
+    public static String compress(String text) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(text.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(text.length() / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return COMPRESSED_MARKER + Base64.getEncoder().encodeToString(compressed.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Gets the text of a stored page, decompressing it if necessary.
+     *
+     * @param page A page as stored in a book.
+     * @return The text of the page.
+     */
+    public static String decompress(String page) {
+        if (!isCompressed(page)) {
+            return page;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(Base64.getDecoder().decode(page.substring(1)));
+            ByteArrayOutputStream text = new ByteArrayOutputStream(page.length() * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated page");
+                }
+                text.write(buffer, 0, length);
+            }
+            return new String(text.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException | IllegalArgumentException e) {
+            logger.warn("Could not decompress page", e);
+            return "";
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Replaces the text of a page.
+     *
+     * @param pages The pages of the book.
+     * @param page The index of the page to replace.
+     * @param text The new text of the page.
+     * @return False if there is no such page.
+     */
+    public static boolean setPage(List<String> pages, int page, String text) {
+        if (page < 0 || page >= pages.size() || text == null) {
+            return false;
+        }
+        pages.set(page, text);
+        return true;
+    }
+
+    /**
+     * Inserts two empty pages.
+     *
+     * @param pages The pages of the book.
+     * @param page The index at which the first of the two new pages is inserted.
+     * @return False if the index is out of range.
+     */
+    public static boolean insertSpread(List<String> pages, int page) {
+        if (page < 0 || page > pages.size()) {
+            return false;
+        }
+        pages.add(page, "");
+        pages.add(page, "");
+        return true;
+    }
+
+    /**
+     * Deletes two consecutive pages. The last spread of a book cannot be deleted.
+     *
+     * @param pages The pages of the book.
+     * @param page The index of the first of the two pages.
+     * @return False if the index is out of range or the book has no more than two pages.
+     */
+    public static boolean deleteSpread(List<String> pages, int page) {
+        if (page < 0 || page + 1 >= pages.size() || pages.size() <= 2) {
+            return false;
+        }
+        pages.remove(page);
+        pages.remove(page);
+        return true;
+    }
+}
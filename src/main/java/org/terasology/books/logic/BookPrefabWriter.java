@@ -0,0 +1,103 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import com.google.gson.stream.JsonWriter;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.common.DisplayNameComponent;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.logic.inventory.ItemComponent.UsageType;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a book as a prefab, so that books written in game can be shipped with a module.
+ * <br>
+ * The prefab is written to the output as it is generated and every page is decompressed only while it is written,
+ * so exporting a book takes the same amount of memory however long it is.
+ */
+public final class BookPrefabWriter {
+    private static final String INDENT = "  ";
+    private static final String DEFAULT_NAME = "Book";
+    /* The icon of Books:book, for books without an item component */
+    private static final String DEFAULT_ICON = "engine:items#brownBook";
+
+    private BookPrefabWriter() {
+    }
+
+    /**
+     * Writes the prefab of a book.
+     *
+     * @param bookEntity The book item to write.
+     * @param output Receives the prefab. It is not closed.
+     * @throws IOException If the prefab cannot be written.
+     */
+    public static void write(EntityRef bookEntity, Writer output) throws IOException {
+        BookComponent book = bookEntity.getComponent(BookComponent.class);
+        DisplayNameComponent displayName = bookEntity.getComponent(DisplayNameComponent.class);
+        String name = DEFAULT_NAME;
+        if (displayName != null && displayName.name != null) {
+            name = displayName.name;
+        } else if (book.title != null) {
+            name = book.title;
+        }
+
+        JsonWriter json = new JsonWriter(output);
+        json.setIndent(INDENT);
+        json.beginObject();
+        json.name("parent").value("engine:iconItem");
+        writeItem(bookEntity.getComponent(ItemComponent.class), json);
+        json.name("DisplayName").beginObject()
+                .name("name").value(name)
+                .endObject();
+
+        json.name("Book").beginObject();
+        if (book.title != null) {
+            json.name("title").value(book.title);
+        }
+        json.name("tint").beginArray()
+                .value(book.tint.r()).value(book.tint.g()).value(book.tint.b()).value(book.tint.a())
+                .endArray();
+        if (book.readOnly) {
+            json.name("readOnly").value(true);
+        }
+        json.name("pages").beginArray();
+        for (String page : book.pages) {
+            json.value(BookPages.decompress(page));
+        }
+        json.endArray();
+        json.endObject();
+
+        json.name("InteractionTarget").beginObject().endObject();
+        json.name("InteractionScreen").beginObject()
+                .name("screen").value("Books:BookScreen")
+                .endObject();
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Writes the item settings of the book as they are, so that the exported book looks and is used like the original.
+     */
+    private static void writeItem(ItemComponent item, JsonWriter json) throws IOException {
+        json.name("Item").beginObject();
+        if (item == null) {
+            json.name("icon").value(DEFAULT_ICON).name("usage").value(UsageType.ON_USER.name());
+            json.endObject();
+            return;
+        }
+        if (item.icon != null) {
+            json.name("icon").value(item.icon.getUrn().toString());
+        }
+        json.name("usage").value(item.usage.name());
+        if (item.stackId != null && !item.stackId.isEmpty()) {
+            json.name("stackId").value(item.stackId);
+        }
+        json.name("maxStackSize").value(item.maxStackSize);
+        if (item.consumedOnUse) {
+            json.name("consumedOnUse").value(true);
+        }
+        json.endObject();
+    }
+}
@@ -0,0 +1,29 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+/**
+ * A page of a book matching a search.
+ */
+public final class BookSearchHit {
+    private final EntityRef book;
+    private final int page;
+
+    public BookSearchHit(EntityRef book, int page) {
+        this.book = book;
+        this.page = page;
+    }
+
+    public EntityRef getBook() {
+        return book;
+    }
+
+    /**
+     * @return The index of the matching page.
+     */
+    public int getPage() {
+        return page;
+    }
+}
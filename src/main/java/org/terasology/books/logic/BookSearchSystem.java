@@ -0,0 +1,230 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.terasology.books.SearchTerms;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.common.DisplayNameComponent;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.console.commandSystem.annotations.Sender;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps an inverted index from terms to the books and pages containing them, across all books in the world.
+ * <br>
+ * The index is updated incrementally whenever a book is added, changed or removed. When pages are only replaced,
+ * just these pages are indexed again. Postings are kept in primitive arrays, packing book and page into a long.
+ * Every player can search from the console, but only once every {@value #MIN_SEARCH_INTERVAL_MS} milliseconds.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(BookSearchSystem.class)
+public class BookSearchSystem extends BaseComponentSystem {
+    private static final int PAGE_BITS = 20;
+    private static final long PAGE_MASK = (1L << PAGE_BITS) - 1;
+    private static final int MAX_COMMAND_RESULTS = 20;
+    private static final long MIN_SEARCH_INTERVAL_MS = 2000;
+
+    @In
+    private EntityManager entityManager;
+    @In
+    private Time time;
+
+    /* The time of the last search from the console by client entity */
+    private final Map<EntityRef, Long> lastSearchTimes = new HashMap<>();
+
+    private final Map<String, LongPostings> postingsByTerm = new HashMap<>();
+    private final Map<Long, IndexedBook> indexedBooks = new HashMap<>();
+
+    @ReceiveEvent
+    public void onBookActivated(OnActivatedComponent event, EntityRef entity, BookComponent book) {
+        index(entity.getId(), book);
+    }
+
+    @ReceiveEvent
+    public void onBookChanged(OnChangedComponent event, EntityRef entity, BookComponent book) {
+        index(entity.getId(), book);
+    }
+
+    @ReceiveEvent
+    public void onBookDeactivated(BeforeDeactivateComponent event, EntityRef entity, BookComponent book) {
+        IndexedBook indexedBook = indexedBooks.remove(entity.getId());
+        if (indexedBook != null) {
+            for (int page = 0; page < indexedBook.pages.size(); page++) {
+                unindexPage(entity.getId(), indexedBook, page);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        postingsByTerm.clear();
+        indexedBooks.clear();
+        lastSearchTimes.clear();
+    }
+
+    /**
+     * Finds the pages containing all terms of a query.
+     *
+     * @param query The words to search for, case-insensitive.
+     * @param limit The maximum number of results.
+     * @return The matching pages, ordered by book and page.
+     */
+    public List<BookSearchHit> search(String query, int limit) {
+        List<String> terms = SearchTerms.parseQuery(query);
+        List<BookSearchHit> hits = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return hits;
+        }
+        LongPostings[] postings = new LongPostings[terms.size()];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = postingsByTerm.get(terms.get(i));
+            if (postings[i] == null) {
+                return hits;
+            }
+        }
+        // Check the postings of the rarest term against all others
+        Arrays.sort(postings, Comparator.comparingInt(LongPostings::size));
+        long[] candidates = postings[0].sortedValues();
+        for (int i = 0; i < postings[0].size() && hits.size() < limit; i++) {
+            long posting = candidates[i];
+            boolean matchesAll = true;
+            for (int j = 1; j < postings.length && matchesAll; j++) {
+                matchesAll = postings[j].contains(posting);
+            }
+            if (matchesAll) {
+                hits.add(new BookSearchHit(entityManager.getEntity(posting >>> PAGE_BITS), (int) (posting & PAGE_MASK)));
+            }
+        }
+        return hits;
+    }
+
+    @Command(shortDescription = "Finds the books mentioning all given words",
+            helpText = "Lists the books and pages containing all words of the query. Put several words in quotes.",
+            runOnServer = true, requiredPermission = PermissionManager.NO_PERMISSION)
+    public String searchBooks(@Sender EntityRef client, @CommandParam("query") String query) {
+        long now = time.getRealTimeInMs();
+        lastSearchTimes.keySet().removeIf(sender -> !sender.exists());
+        Long lastSearchTime = lastSearchTimes.get(client);
+        if (lastSearchTime != null && now - lastSearchTime < MIN_SEARCH_INTERVAL_MS) {
+            return "Please wait a moment before searching again";
+        }
+        lastSearchTimes.put(client, now);
+        List<BookSearchHit> hits = search(query, MAX_COMMAND_RESULTS);
+        if (hits.isEmpty()) {
+            return "No book mentions \"" + query + "\"";
+        }
+        StringBuilder result = new StringBuilder();
+        for (BookSearchHit hit : hits) {
+            result.append(getTitle(hit.getBook())).append(", page ").append(hit.getPage() + 1).append('\n');
+        }
+        return result.toString();
+    }
+
+    private void index(long bookId, BookComponent book) {
+        List<String> pages = BookPageStore.share(book.pages);
+        IndexedBook indexedBook = indexedBooks.get(bookId);
+        if (indexedBook == null || indexedBook.pages.size() != pages.size()) {
+            // Pages were inserted or deleted, so the page numbers of all postings are outdated
+            if (indexedBook != null) {
+                for (int page = 0; page < indexedBook.pages.size(); page++) {
+                    unindexPage(bookId, indexedBook, page);
+                }
+            }
+            indexedBook = new IndexedBook(pages);
+            indexedBooks.put(bookId, indexedBook);
+            for (int page = 0; page < pages.size(); page++) {
+                indexPage(bookId, indexedBook, page);
+            }
+            return;
+        }
+        List<String> oldPages = indexedBook.pages;
+        indexedBook.pages = pages;
+        for (int page = 0; page < pages.size(); page++) {
+            if (!pages.get(page).equals(oldPages.get(page))) {
+                unindexPage(bookId, indexedBook, page);
+                indexPage(bookId, indexedBook, page);
+            }
+        }
+    }
+
+    private void indexPage(long bookId, IndexedBook indexedBook, int page) {
+        Set<String> terms = new LinkedHashSet<>();
+        SearchTerms.forEachTerm(BookPages.decompress(indexedBook.pages.get(page)), (term, start, end) -> terms.add(term));
+        LongPostings[] pageTerms = new LongPostings[terms.size()];
+        long posting = toPosting(bookId, page);
+        int i = 0;
+        for (String term : terms) {
+            LongPostings postings = postingsByTerm.computeIfAbsent(term, LongPostings::new);
+            postings.add(posting);
+            pageTerms[i++] = postings;
+        }
+        indexedBook.terms.set(page, pageTerms);
+    }
+
+    private void unindexPage(long bookId, IndexedBook indexedBook, int page) {
+        long posting = toPosting(bookId, page);
+        for (LongPostings postings : indexedBook.terms.get(page)) {
+            postings.remove(posting);
+            if (postings.isEmpty()) {
+                postingsByTerm.remove(postings.getTerm());
+            }
+        }
+        indexedBook.terms.set(page, new LongPostings[0]);
+    }
+
+    private static long toPosting(long bookId, int page) {
+        return bookId << PAGE_BITS | page;
+    }
+
+    /**
+     * Gets the name of a book as shown to players: its title, its display name or, failing both, its entity.
+     */
+    static String getTitle(EntityRef bookEntity) {
+        BookComponent book = bookEntity.getComponent(BookComponent.class);
+        if (book != null && book.title != null) {
+            return book.title;
+        }
+        DisplayNameComponent displayName = bookEntity.getComponent(DisplayNameComponent.class);
+        if (displayName != null && displayName.name != null) {
+            return displayName.name;
+        }
+        return bookEntity.toString();
+    }
+
+    /**
+     * The pages of a book as they were indexed, and the postings of the terms on every page.
+     */
+    private static final class IndexedBook {
+        private List<String> pages;
+        private final List<LongPostings[]> terms;
+
+        IndexedBook(List<String> pages) {
+            this.pages = pages;
+            this.terms = new ArrayList<>(pages.size());
+            for (int i = 0; i < pages.size(); i++) {
+                terms.add(new LongPostings[0]);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.console.commandSystem.annotations.Sender;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.InventorySlotChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a catalog of the books stored in bookcases, to find out where a book is and which books are near a position.
+ * <br>
+ * The contents of a bookcase are read once when it is loaded, afterwards the catalog follows the changes of single
+ * inventory slots. As slots change one at a time, a book which is moved within a bookcase may briefly be in two of its
+ * slots, so the catalog counts the slots of every book and only drops it once it is in none.
+ * Books are indexed by their lower-case title, bookcases by the cell of a coarse grid they are in, so neither query has
+ * to look at bookcases which cannot match.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(BookcaseCatalogSystem.class)
+public class BookcaseCatalogSystem extends BaseComponentSystem {
+    private static final int CELL_SIZE = 16;
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+    private static final int MAX_COMMAND_RESULTS = 20;
+    private static final float DEFAULT_COMMAND_RADIUS = 32;
+
+    @In
+    private EntityManager entityManager;
+
+    private final Map<Long, CataloguedBookcase> bookcases = new HashMap<>();
+    private final Map<Long, Set<Long>> bookcasesByCell = new HashMap<>();
+    /* The bookcase every catalogued book is in */
+    private final Map<Long, Long> bookcaseByBook = new HashMap<>();
+    private final Map<String, Set<Long>> booksByTitle = new HashMap<>();
+    /* The title every catalogued book is indexed with, so that it can be found again when the title changes */
+    private final Map<Long, String> titleByBook = new HashMap<>();
+
+    @ReceiveEvent(components = BookcaseComponent.class)
+    public void onBookcaseActivated(OnActivatedComponent event, EntityRef entity, LocationComponent location,
+                                    InventoryComponent inventory) {
+        if (bookcases.containsKey(entity.getId())) {
+            return;
+        }
+        Vector3f position = location.getWorldPosition(new Vector3f());
+        CataloguedBookcase bookcase = new CataloguedBookcase(position, toCell(position));
+        bookcases.put(entity.getId(), bookcase);
+        bookcasesByCell.computeIfAbsent(bookcase.cell, cell -> new HashSet<>()).add(entity.getId());
+        for (EntityRef item : inventory.itemSlots) {
+            addBook(entity.getId(), bookcase, item);
+        }
+    }
+
+    @ReceiveEvent(components = BookcaseComponent.class)
+    public void onBookcaseDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        CataloguedBookcase bookcase = bookcases.remove(entity.getId());
+        if (bookcase == null) {
+            return;
+        }
+        Set<Long> cellBookcases = bookcasesByCell.get(bookcase.cell);
+        cellBookcases.remove(entity.getId());
+        if (cellBookcases.isEmpty()) {
+            bookcasesByCell.remove(bookcase.cell);
+        }
+        for (long bookId : bookcase.slotsByBook.keySet()) {
+            bookcaseByBook.remove(bookId);
+            removeTitle(bookId);
+        }
+    }
+
+    @ReceiveEvent(components = BookcaseComponent.class)
+    public void onBookcaseSlotChanged(InventorySlotChangedEvent event, EntityRef entity) {
+        CataloguedBookcase bookcase = bookcases.get(entity.getId());
+        if (bookcase == null) {
+            return;
+        }
+        addBook(entity.getId(), bookcase, event.getNewItem());
+        EntityRef oldItem = event.getOldItem();
+        // A book moved to another bookcase may have been added there before it is removed here
+        if (oldItem.exists() && bookcase.removeSlot(oldItem.getId())
+                && Long.valueOf(entity.getId()).equals(bookcaseByBook.get(oldItem.getId()))) {
+            bookcaseByBook.remove(oldItem.getId());
+            removeTitle(oldItem.getId());
+        }
+    }
+
+    @ReceiveEvent
+    public void onBookChanged(OnChangedComponent event, EntityRef entity, BookComponent book) {
+        String title = titleByBook.get(entity.getId());
+        if (title != null && !title.equals(toTitleKey(entity))) {
+            removeTitle(entity.getId());
+            addTitle(entity);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        bookcases.clear();
+        bookcasesByCell.clear();
+        bookcaseByBook.clear();
+        booksByTitle.clear();
+        titleByBook.clear();
+    }
+
+    /**
+     * Finds the bookcases holding books with a title.
+     *
+     * @param title The title of the book, case-insensitive.
+     * @return Every book with this title that is stored in a bookcase.
+     */
+    public List<BookLocation> findBook(String title) {
+        Set<Long> books = booksByTitle.getOrDefault(title.trim().toLowerCase(Locale.ROOT), Collections.emptySet());
+        List<BookLocation> locations = new ArrayList<>(books.size());
+        for (long bookId : books) {
+            long bookcaseId = bookcaseByBook.get(bookId);
+            locations.add(new BookLocation(entityManager.getEntity(bookId), entityManager.getEntity(bookcaseId),
+                    bookcases.get(bookcaseId).position));
+        }
+        return locations;
+    }
+
+    /**
+     * Lists the books stored in bookcases near a position.
+     *
+     * @param position The position to search around.
+     * @param radius The maximum distance of a bookcase from the position.
+     * @return The books in all bookcases within the radius.
+     */
+    public List<BookLocation> findBooksNear(Vector3fc position, float radius) {
+        List<BookLocation> locations = new ArrayList<>();
+        for (long bookcaseId : findBookcaseIdsNear(position, radius)) {
+            CataloguedBookcase bookcase = bookcases.get(bookcaseId);
+            EntityRef bookcaseEntity = entityManager.getEntity(bookcaseId);
+            for (long bookId : bookcase.slotsByBook.keySet()) {
+                locations.add(new BookLocation(entityManager.getEntity(bookId), bookcaseEntity, bookcase.position));
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Finds the bookcase nearest to a position, whether it holds books or not.
+     *
+     * @param position The position to search around.
+     * @param radius The maximum distance of the bookcase from the position.
+     * @return The nearest bookcase within the radius, or {@link EntityRef#NULL} if there is none.
+     */
+    public EntityRef findNearestBookcase(Vector3fc position, float radius) {
+        long nearestId = 0;
+        float nearestDistance = Float.POSITIVE_INFINITY;
+        for (long bookcaseId : findBookcaseIdsNear(position, radius)) {
+            float distance = bookcases.get(bookcaseId).position.distanceSquared(position);
+            if (distance < nearestDistance) {
+                nearestId = bookcaseId;
+                nearestDistance = distance;
+            }
+        }
+        return nearestDistance < Float.POSITIVE_INFINITY ? entityManager.getEntity(nearestId) : EntityRef.NULL;
+    }
+
+    @Command(shortDescription = "Finds the bookcases holding a book",
+            helpText = "Lists the positions of all bookcases holding a book with the given title. Put titles with spaces in quotes.",
+            runOnServer = true, requiredPermission = PermissionManager.NO_PERMISSION)
+    public String whereIsBook(@CommandParam("title") String title) {
+        List<BookLocation> locations = findBook(title);
+        if (locations.isEmpty()) {
+            return "No bookcase holds \"" + title + "\"";
+        }
+        return describe(locations);
+    }
+
+    @Command(shortDescription = "Lists the books in bookcases nearby",
+            helpText = "Lists the books in all bookcases within the given distance of your character, 32 blocks by default.",
+            runOnServer = true, requiredPermission = PermissionManager.NO_PERMISSION)
+    public String booksNearby(@Sender EntityRef client, @CommandParam(value = "radius", required = false) Float radius) {
+        EntityRef character = client.getComponent(ClientComponent.class).character;
+        LocationComponent location = character.getComponent(LocationComponent.class);
+        if (location == null) {
+            return "You are nowhere";
+        }
+        List<BookLocation> locations = findBooksNear(location.getWorldPosition(new Vector3f()),
+                radius != null ? radius : DEFAULT_COMMAND_RADIUS);
+        if (locations.isEmpty()) {
+            return "There are no books nearby";
+        }
+        return describe(locations);
+    }
+
+    /**
+     * Lists the bookcases within a distance of a position, looking only at the cells of the grid in range.
+     */
+    private List<Long> findBookcaseIdsNear(Vector3fc position, float radius) {
+        int minX = Math.floorDiv((int) Math.floor(position.x() - radius), CELL_SIZE);
+        int minY = Math.floorDiv((int) Math.floor(position.y() - radius), CELL_SIZE);
+        int minZ = Math.floorDiv((int) Math.floor(position.z() - radius), CELL_SIZE);
+        int maxX = Math.floorDiv((int) Math.floor(position.x() + radius), CELL_SIZE);
+        int maxY = Math.floorDiv((int) Math.floor(position.y() + radius), CELL_SIZE);
+        int maxZ = Math.floorDiv((int) Math.floor(position.z() + radius), CELL_SIZE);
+        long cellCount = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        List<Long> bookcaseIds = new ArrayList<>();
+        if (cellCount > bookcasesByCell.size()) {
+            // Fewer occupied cells than cells in range, so looking at the occupied ones is faster
+            for (Set<Long> cellBookcases : bookcasesByCell.values()) {
+                addBookcasesNear(cellBookcases, position, radius, bookcaseIds);
+            }
+            return bookcaseIds;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Set<Long> cellBookcases = bookcasesByCell.get(toCell(x, y, z));
+                    if (cellBookcases != null) {
+                        addBookcasesNear(cellBookcases, position, radius, bookcaseIds);
+                    }
+                }
+            }
+        }
+        return bookcaseIds;
+    }
+
+    private void addBookcasesNear(Set<Long> cellBookcases, Vector3fc position, float radius, List<Long> bookcaseIds) {
+        for (long bookcaseId : cellBookcases) {
+            if (bookcases.get(bookcaseId).position.distanceSquared(position) <= radius * radius) {
+                bookcaseIds.add(bookcaseId);
+            }
+        }
+    }
+
+    private void addBook(long bookcaseId, CataloguedBookcase bookcase, EntityRef item) {
+        if (!item.hasComponent(BookComponent.class)) {
+            return;
+        }
+        Long previousBookcaseId = bookcaseByBook.put(item.getId(), bookcaseId);
+        if (previousBookcaseId != null && previousBookcaseId != bookcaseId) {
+            CataloguedBookcase previousBookcase = bookcases.get(previousBookcaseId);
+            if (previousBookcase != null) {
+                previousBookcase.slotsByBook.remove(item.getId());
+            }
+        }
+        bookcase.slotsByBook.merge(item.getId(), 1, Integer::sum);
+        if (!titleByBook.containsKey(item.getId())) {
+            addTitle(item);
+        }
+    }
+
+    private void addTitle(EntityRef book) {
+        String title = toTitleKey(book);
+        titleByBook.put(book.getId(), title);
+        booksByTitle.computeIfAbsent(title, key -> new HashSet<>()).add(book.getId());
+    }
+
+    private void removeTitle(long bookId) {
+        String title = titleByBook.remove(bookId);
+        if (title == null) {
+            return;
+        }
+        Set<Long> books = booksByTitle.get(title);
+        books.remove(bookId);
+        if (books.isEmpty()) {
+            booksByTitle.remove(title);
+        }
+    }
+
+    private static String describe(List<BookLocation> locations) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < locations.size() && i < MAX_COMMAND_RESULTS; i++) {
+            BookLocation location = locations.get(i);
+            Vector3fc position = location.getPosition();
+            result.append(BookSearchSystem.getTitle(location.getBook())).append(" at ")
+                    .append((int) Math.floor(position.x())).append(", ")
+                    .append((int) Math.floor(position.y())).append(", ")
+                    .append((int) Math.floor(position.z())).append('\n');
+        }
+        if (locations.size() > MAX_COMMAND_RESULTS) {
+            result.append("and ").append(locations.size() - MAX_COMMAND_RESULTS).append(" more\n");
+        }
+        return result.toString();
+    }
+
+    private static String toTitleKey(EntityRef book) {
+        return BookSearchSystem.getTitle(book).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toCell(Vector3fc position) {
+        return toCell(Math.floorDiv((int) Math.floor(position.x()), CELL_SIZE),
+                Math.floorDiv((int) Math.floor(position.y()), CELL_SIZE),
+                Math.floorDiv((int) Math.floor(position.z()), CELL_SIZE));
+    }
+
+    private static long toCell(int x, int y, int z) {
+        return (x & CELL_MASK) << (2 * CELL_BITS) | (y & CELL_MASK) << CELL_BITS | (z & CELL_MASK);
+    }
+
+    /**
+     * The position of a bookcase and the books in it, with the number of slots every book is in.
+     */
+    private static final class CataloguedBookcase {
+        private final Vector3f position;
+        private final long cell;
+        private final Map<Long, Integer> slotsByBook = new HashMap<>();
+
+        CataloguedBookcase(Vector3f position, long cell) {
+            this.position = position;
+            this.cell = cell;
+        }
+
+        /**
+         * Removes a book from one slot.
+         *
+         * @return True if the book was in this bookcase and is in no slot of it anymore.
+         */
+        boolean removeSlot(long bookId) {
+            Integer slots = slotsByBook.get(bookId);
+            if (slots == null) {
+                return false;
+            }
+            if (slots > 1) {
+                slotsByBook.put(bookId, slots - 1);
+                return false;
+            }
+            slotsByBook.remove(bookId);
+            return true;
+        }
+    }
+}
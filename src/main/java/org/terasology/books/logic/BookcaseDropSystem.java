@@ -0,0 +1,101 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.inventory.events.DropItemEvent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.world.block.entity.CreateBlockDropsEvent;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Drops the books of destroyed bookcases on the ground. Only the authority drops items, so clients do not queue
+ * the books of bookcases destroyed in their view.
+ * <br>
+ * The contents of destroyed bookcases are dropped over several ticks, so that destroying many full bookcases at once
+ * does not create thousands of items in a single tick.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class BookcaseDropSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    /* Number of books dropped per tick */
+    private static final int DROPS_PER_TICK = 32;
+    /* Distance between the books dropped from one bookcase, so that they do not all start at the same spot */
+    private static final float DROP_SPACING = 0.25f;
+
+    /* Books of destroyed bookcases which have not been dropped yet */
+    private final Deque<PendingDrop> pendingDrops = new ArrayDeque<>();
+
+    /**
+     * On destruction of a bookcase go through its inventory and queue all books to be dropped on the ground.
+     * @param event the triggering event (something caused block drops - the bookcase was destroyed)
+     * @param entity the bookcase's entity, has the target inventory to go through
+     */
+    @ReceiveEvent(components = BookcaseComponent.class)
+    public void onDestroyBookCase(CreateBlockDropsEvent event, EntityRef entity, LocationComponent location, InventoryComponent inventory) {
+        Vector3f pos = location.getWorldPosition(new Vector3f());
+        List<EntityRef> items = inventory.itemSlots;
+        int dropped = 0;
+        for (EntityRef item : items) {
+            if (item.hasComponent(BookComponent.class)) {
+                // Spread the books over a 3x3 grid around the bookcase
+                Vector3f dropPos = new Vector3f(pos).add((dropped % 3 - 1) * DROP_SPACING, 0, (dropped / 3 % 3 - 1) * DROP_SPACING);
+                pendingDrops.add(new PendingDrop(item, dropPos));
+                dropped++;
+            }
+        }
+        items.clear();
+    }
+
+    @Override
+    public void update(float delta) {
+        for (int i = 0; i < DROPS_PER_TICK && !pendingDrops.isEmpty(); i++) {
+            pendingDrops.poll().drop();
+        }
+    }
+
+    @Override
+    public void preSave() {
+        // Books waiting to be dropped are in no inventory, so they would be lost if the game were saved now
+        dropAll();
+    }
+
+    @Override
+    public void shutdown() {
+        dropAll();
+    }
+
+    private void dropAll() {
+        while (!pendingDrops.isEmpty()) {
+            pendingDrops.poll().drop();
+        }
+    }
+
+    /**
+     * A book waiting to be dropped, and where.
+     */
+    private static final class PendingDrop {
+        private final EntityRef item;
+        private final Vector3f position;
+
+        PendingDrop(EntityRef item, Vector3f position) {
+            this.item = item;
+            this.position = position;
+        }
+
+        void drop() {
+            if (item.exists()) {
+                item.send(new DropItemEvent(position));
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.logic.events.MoveBooksEvent;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.BeforeItemPutInInventory;
+import org.terasology.module.inventory.events.BeforeItemRemovedFromInventory;
+import org.terasology.module.inventory.systems.InventoryManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves many books between two inventories at once, e.g. to fill a bookcase.
+ * <br>
+ * A client sends a single request for all books instead of one per book. All books are checked in a single pass
+ * before the first one is moved, so that either all of them are moved or none. The checks are the ones of the
+ * inventory module: private inventories can only be used by their owner, and every book is offered to the listeners
+ * of {@link BeforeItemRemovedFromInventory} and {@link BeforeItemPutInInventory}, which can veto the move.
+ * The books are then moved by the {@link InventoryManager}, which saves the inventories and tells the listeners of
+ * the slots.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(BookcaseTransferSystem.class)
+public class BookcaseTransferSystem extends BaseComponentSystem {
+    private static final Logger logger = LoggerFactory.getLogger(BookcaseTransferSystem.class);
+
+    /* How far away from a bookcase a character can be to move books into or out of it */
+    private static final float MAX_REACH = 8;
+
+    @In
+    private InventoryManager inventoryManager;
+
+    @ReceiveEvent
+    public void onMoveBooks(MoveBooksEvent event, EntityRef character, LocationComponent location) {
+        EntityRef bookcase = event.getBookcase();
+        LocationComponent bookcaseLocation = bookcase.getComponent(LocationComponent.class);
+        if (!bookcase.hasComponent(BookcaseComponent.class) || bookcaseLocation == null
+                || location.getWorldPosition(new Vector3f()).distance(bookcaseLocation.getWorldPosition(new Vector3f())) > MAX_REACH) {
+            logger.warn("{} tried to move books into or out of {}, which is no bookcase within reach", character, bookcase);
+            return;
+        }
+        EntityRef from = event.isIntoBookcase() ? character : bookcase;
+        EntityRef to = event.isIntoBookcase() ? bookcase : character;
+        if (!moveBooks(character, from, to, event.getSlots())) {
+            logger.warn("{} tried to move books which cannot be moved from {} to {}", character, from, to);
+        }
+    }
+
+    /**
+     * Moves the items in some slots of an inventory to the empty slots of another inventory.
+     * <br>
+     * Nothing is moved unless all items are books, there are enough empty slots for them, both inventories are
+     * accessible to the instigator and no listener vetoes taking out or putting in any of the books.
+     *
+     * @param instigator The entity moving the books, usually a character.
+     * @param from The entity with the inventory to move the books out of.
+     * @param to The entity with the inventory to move the books into.
+     * @param slots The slots of the books in the inventory they are moved out of.
+     * @return Whether the books have been moved.
+     */
+    public boolean moveBooks(EntityRef instigator, EntityRef from, EntityRef to, List<Integer> slots) {
+        InventoryComponent fromInventory = from.getComponent(InventoryComponent.class);
+        InventoryComponent toInventory = to.getComponent(InventoryComponent.class);
+        if (fromInventory == null || toInventory == null || from.equals(to)
+                || !isAccessible(instigator, from, fromInventory) || !isAccessible(instigator, to, toInventory)) {
+            return false;
+        }
+
+        Set<Integer> checkedSlots = new HashSet<>();
+        for (int slot : slots) {
+            if (slot < 0 || slot >= fromInventory.itemSlots.size() || !checkedSlots.add(slot)
+                    || !fromInventory.itemSlots.get(slot).hasComponent(BookComponent.class)) {
+                return false;
+            }
+        }
+        List<Integer> emptySlots = new ArrayList<>(slots.size());
+        for (int slot = 0; slot < toInventory.itemSlots.size() && emptySlots.size() < slots.size(); slot++) {
+            if (!toInventory.itemSlots.get(slot).exists()) {
+                emptySlots.add(slot);
+            }
+        }
+        if (emptySlots.size() < slots.size()) {
+            return false;
+        }
+        for (int i = 0; i < slots.size(); i++) {
+            EntityRef book = fromInventory.itemSlots.get(slots.get(i));
+            BeforeItemRemovedFromInventory removal = new BeforeItemRemovedFromInventory(instigator, book, slots.get(i));
+            from.send(removal);
+            if (removal.isConsumed()) {
+                return false;
+            }
+            BeforeItemPutInInventory insertion = new BeforeItemPutInInventory(instigator, book, emptySlots.get(i));
+            to.send(insertion);
+            if (insertion.isConsumed()) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < slots.size(); i++) {
+            // The inventory manager checks every book again, so it only fails if a listener changed its mind
+            if (!inventoryManager.moveItemToSlots(instigator, from, slots.get(i), to, Collections.singletonList(emptySlots.get(i)))) {
+                logger.warn("Moving book {} of {} from {} to {} failed after it was checked", i + 1, slots.size(), from, to);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an entity may take items out of or put items into an inventory: private inventories are only
+     * accessible to the entity itself and to its owner.
+     */
+    private static boolean isAccessible(EntityRef instigator, EntityRef entity, InventoryComponent inventory) {
+        return !inventory.privateToOwner || entity.equals(instigator) || entity.getOwner().equals(instigator);
+    }
+}
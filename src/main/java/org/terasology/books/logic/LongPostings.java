@@ -0,0 +1,121 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A growable list of primitive postings, i.e. book and page pairs packed into a long, for the search index.
+ * The postings are sorted lazily, when they are read or removed.
+ * <br>
+ * Removed postings are found by binary search and only marked as removed. They are dropped together once they make
+ * up half of the list, or when the postings are read, so that unindexing many pages does not shift the list each time.
+ */
+final class LongPostings {
+    private final String term;
+    private long[] values = new long[2];
+    /* The number of used elements of values, including the removed ones */
+    private int length;
+    private boolean sorted = true;
+    /* The indices of removed postings in values */
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+
+    /**
+     * @param term The term these are the postings of.
+     */
+    LongPostings(String term) {
+        this.term = term;
+    }
+
+    String getTerm() {
+        return term;
+    }
+
+    void add(long value) {
+        if (length == values.length) {
+            values = Arrays.copyOf(values, length * 2);
+        }
+        if (length > 0 && values[length - 1] > value) {
+            sorted = false;
+        }
+        values[length++] = value;
+    }
+
+    void remove(long value) {
+        if (!sorted) {
+            sort();
+        }
+        int index = Arrays.binarySearch(values, 0, length, value);
+        if (index < 0) {
+            return;
+        }
+        // A posting which was removed and added again may still be there as well, marked as removed
+        while (index > 0 && values[index - 1] == value) {
+            index--;
+        }
+        while (index < length && values[index] == value && removed.get(index)) {
+            index++;
+        }
+        if (index == length || values[index] != value) {
+            return;
+        }
+        removed.set(index);
+        removedCount++;
+        if (removedCount > length / 2) {
+            compact();
+        }
+    }
+
+    int size() {
+        return length - removedCount;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return The backing array, sorted in its first {@link #size()} elements. Must not be modified.
+     */
+    long[] sortedValues() {
+        if (removedCount > 0) {
+            compact();
+        }
+        if (!sorted) {
+            sort();
+        }
+        return values;
+    }
+
+    boolean contains(long value) {
+        return Arrays.binarySearch(sortedValues(), 0, length, value) >= 0;
+    }
+
+    /**
+     * Sorts the postings, dropping the removed ones first, as their marks would not move along.
+     */
+    private void sort() {
+        if (removedCount > 0) {
+            compact();
+        }
+        Arrays.sort(values, 0, length);
+        sorted = true;
+    }
+
+    /**
+     * Drops the removed postings, keeping the order of all others.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < length; i++) {
+            if (!removed.get(i)) {
+                values[kept++] = values[i];
+            }
+        }
+        length = kept;
+        removed.clear();
+        removedCount = 0;
+    }
+}
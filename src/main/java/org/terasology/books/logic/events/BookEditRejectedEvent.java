@@ -0,0 +1,46 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.OwnerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by the authority to the owner of a book when an edit of the book could not be applied, e.g. because it was
+ * based on an outdated version. Carries the current pages, so that the client can show them instead of its own.
+ */
+@OwnerEvent
+public class BookEditRejectedEvent implements Event {
+    private int version;
+    private List<String> pages = new ArrayList<>();
+    private String reason;
+
+    protected BookEditRejectedEvent() {
+    }
+
+    /**
+     * @param version The current version of the book.
+     * @param pages The current pages of the book, or an empty list if they are streamed, see BookComponent#streamPages.
+     * @param reason Describes why the edit was rejected.
+     */
+    public BookEditRejectedEvent(int version, List<String> pages, String reason) {
+        this.version = version;
+        this.pages = pages;
+        this.reason = reason;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<String> getPages() {
+        return pages;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
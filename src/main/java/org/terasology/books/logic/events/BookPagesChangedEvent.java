@@ -0,0 +1,58 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.BroadcastEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Broadcast by the authority after it applied an edit to a book, carrying only the pages affected by the edit.
+ */
+@BroadcastEvent
+public class BookPagesChangedEvent implements Event {
+    /**
+     * The kinds of page-level edits.
+     */
+    public enum Change {
+        SET_PAGE,
+        INSERT_SPREAD,
+        DELETE_SPREAD
+    }
+
+    private int version;
+    private Change change;
+    private int page;
+    private String text;
+
+    protected BookPagesChangedEvent() {
+    }
+
+    /**
+     * @param version The version of the book after the edit.
+     * @param change The kind of edit.
+     * @param page The index of the edited page, or the first page of the inserted or deleted spread.
+     * @param text The new text of the page for {@link Change#SET_PAGE}, otherwise null.
+     */
+    public BookPagesChangedEvent(int version, Change change, int page, String text) {
+        this.version = version;
+        this.change = change;
+        this.page = page;
+        this.text = text;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
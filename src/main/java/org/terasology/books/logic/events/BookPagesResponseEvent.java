@@ -0,0 +1,53 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.network.OwnerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by the authority to the character of a client, answering a {@link RequestBookPagesEvent}.
+ */
+@OwnerEvent
+public class BookPagesResponseEvent implements Event {
+    private EntityRef book = EntityRef.NULL;
+    private int version;
+    private int firstPage;
+    private List<String> pages = new ArrayList<>();
+
+    protected BookPagesResponseEvent() {
+    }
+
+    /**
+     * @param book The book the pages belong to.
+     * @param version The version of the book the pages were taken from.
+     * @param firstPage The index of the first page.
+     * @param pages The requested pages, in order.
+     */
+    public BookPagesResponseEvent(EntityRef book, int version, int firstPage, List<String> pages) {
+        this.book = book;
+        this.version = version;
+        this.firstPage = firstPage;
+        this.pages = pages;
+    }
+
+    public EntityRef getBook() {
+        return book;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public List<String> getPages() {
+        return pages;
+    }
+}
@@ -0,0 +1,35 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Sent by a client to the authority to delete two consecutive pages of a book.
+ */
+@ServerEvent
+public class DeleteBookSpreadEvent implements Event {
+    private int version;
+    private int page;
+
+    protected DeleteBookSpreadEvent() {
+    }
+
+    /**
+     * @param version The version of the book this edit is based on.
+     * @param page The index of the first of the two pages to delete.
+     */
+    public DeleteBookSpreadEvent(int version, int page) {
+        this.version = version;
+        this.page = page;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPage() {
+        return page;
+    }
+}
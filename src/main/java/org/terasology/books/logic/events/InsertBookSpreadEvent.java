@@ -0,0 +1,35 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Sent by a client to the authority to insert two empty pages into a book.
+ */
+@ServerEvent
+public class InsertBookSpreadEvent implements Event {
+    private int version;
+    private int page;
+
+    protected InsertBookSpreadEvent() {
+    }
+
+    /**
+     * @param version The version of the book this edit is based on.
+     * @param page The index at which the first of the two new pages is inserted.
+     */
+    public InsertBookSpreadEvent(int version, int page) {
+        this.version = version;
+        this.page = page;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPage() {
+        return page;
+    }
+}
@@ -0,0 +1,47 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by a client to its character to move many books between the character's inventory and a bookcase at once.
+ * Either all books are moved or none of them.
+ */
+@ServerEvent
+public class MoveBooksEvent implements Event {
+    private EntityRef bookcase = EntityRef.NULL;
+    private boolean intoBookcase;
+    private List<Integer> slots = new ArrayList<>();
+
+    protected MoveBooksEvent() {
+    }
+
+    /**
+     * @param bookcase The bookcase to move the books into or out of.
+     * @param intoBookcase Whether the books are moved from the character into the bookcase, or the other way round.
+     * @param slots The slots holding the books in the inventory they are moved out of.
+     */
+    public MoveBooksEvent(EntityRef bookcase, boolean intoBookcase, List<Integer> slots) {
+        this.bookcase = bookcase;
+        this.intoBookcase = intoBookcase;
+        this.slots = slots;
+    }
+
+    public EntityRef getBookcase() {
+        return bookcase;
+    }
+
+    public boolean isIntoBookcase() {
+        return intoBookcase;
+    }
+
+    public List<Integer> getSlots() {
+        return slots;
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Sent by a client to its character to request a range of pages of a book whose pages are streamed.
+ * <br>
+ * The request goes to the character rather than the book, as the authority only accepts events sent to entities
+ * owned by the client, which a book lying around or standing in a bookcase is not.
+ */
+@ServerEvent
+public class RequestBookPagesEvent implements Event {
+    private EntityRef book = EntityRef.NULL;
+    private int firstPage;
+    private int pageCount;
+
+    protected RequestBookPagesEvent() {
+    }
+
+    /**
+     * @param book The book to request the pages of.
+     * @param firstPage The index of the first requested page.
+     * @param pageCount The number of requested pages.
+     */
+    public RequestBookPagesEvent(EntityRef book, int firstPage, int pageCount) {
+        this.book = book;
+        this.firstPage = firstPage;
+        this.pageCount = pageCount;
+    }
+
+    public EntityRef getBook() {
+        return book;
+    }
+
+    public int getFirstPage() {
+        return firstPage;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+}
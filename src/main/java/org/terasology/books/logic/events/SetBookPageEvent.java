@@ -0,0 +1,42 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Sent by a client to the authority to replace the text of a single page of a book.
+ */
+@ServerEvent
+public class SetBookPageEvent implements Event {
+    private int version;
+    private int page;
+    private String text;
+
+    protected SetBookPageEvent() {
+    }
+
+    /**
+     * @param version The version of the book this edit is based on.
+     * @param page The index of the page to replace.
+     * @param text The new text of the page.
+     */
+    public SetBookPageEvent(int version, int page, String text) {
+        this.version = version;
+        this.page = page;
+        this.text = text;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
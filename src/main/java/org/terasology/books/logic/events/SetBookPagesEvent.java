@@ -0,0 +1,46 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic.events;
+
+import org.terasology.engine.network.ServerEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by a client to the authority to replace the text of several pages of a book at once,
+ * e.g. all pages changed during an editing session. The pages are saved as a single edit.
+ */
+@ServerEvent
+public class SetBookPagesEvent implements Event {
+    private int version;
+    private List<Integer> pages = new ArrayList<>();
+    private List<String> texts = new ArrayList<>();
+
+    protected SetBookPagesEvent() {
+    }
+
+    /**
+     * @param version The version of the book this edit is based on.
+     * @param pages The indices of the pages to replace.
+     * @param texts The new texts of the pages, in the same order as the indices.
+     */
+    public SetBookPagesEvent(int version, List<Integer> pages, List<String> texts) {
+        this.version = version;
+        this.pages = pages;
+        this.texts = texts;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public List<Integer> getPages() {
+        return pages;
+    }
+
+    public List<String> getTexts() {
+        return texts;
+    }
+}
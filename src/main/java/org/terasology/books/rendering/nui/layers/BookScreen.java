@@ -2,17 +2,29 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.books.rendering.nui.layers;
 
-import com.google.common.base.Joiner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.books.BookEditJournal;
+import org.terasology.books.BookMetrics;
+import org.terasology.books.BookPaginator;
+import org.terasology.books.CompiledPage;
 import org.terasology.books.DefaultDocumentData;
-import org.terasology.books.RecipeParagraph;
+import org.terasology.books.PageDocuments;
+import org.terasology.books.PageMarkup;
+import org.terasology.books.PageMarkupTokenizer;
+import org.terasology.books.PageToken;
+import org.terasology.books.PageSearchIndex;
+import org.terasology.books.SearchTerms;
 import org.terasology.books.logic.BookComponent;
-import org.terasology.books.logic.BookRecipeComponent;
-import org.terasology.books.logic.EditBooksComponent;
+import org.terasology.books.logic.BookEditPermissionSystem;
+import org.terasology.books.logic.BookEditRejectionSystem;
+import org.terasology.books.logic.BookPageCompilerSystem;
+import org.terasology.books.logic.BookPageStreamClientSystem;
+import org.terasology.books.logic.BookPages;
+import org.terasology.books.logic.events.DeleteBookSpreadEvent;
+import org.terasology.books.logic.events.InsertBookSpreadEvent;
+import org.terasology.books.logic.events.SetBookPagesEvent;
 import org.terasology.engine.entitySystem.entity.EntityRef;
-import org.terasology.engine.entitySystem.prefab.Prefab;
-import org.terasology.engine.entitySystem.prefab.PrefabManager;
 import org.terasology.engine.logic.common.DisplayNameComponent;
 import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.registry.In;
@@ -23,19 +35,26 @@ import org.terasology.engine.rendering.nui.widgets.browser.data.ParagraphData;
 import org.terasology.engine.rendering.nui.widgets.browser.data.basic.HTMLLikeParser;
 import org.terasology.engine.rendering.nui.widgets.browser.ui.BrowserWidget;
 import org.terasology.engine.utilities.Assets;
-import org.terasology.module.inventory.systems.InventoryUtils;
+import org.terasology.gestalt.entitysystem.event.Event;
 import org.terasology.nui.Color;
 import org.terasology.nui.UITextureRegion;
 import org.terasology.nui.WidgetUtil;
 import org.terasology.nui.databinding.Binding;
 import org.terasology.nui.databinding.DefaultBinding;
+import org.terasology.nui.skin.UISkin;
 import org.terasology.nui.widgets.UIButton;
 import org.terasology.nui.widgets.UIImage;
 import org.terasology.nui.widgets.UILabel;
+import org.terasology.nui.widgets.UIText;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
 
 /**
  * A Screen class that displays a book. The book is optionally editable, has pages which can be switched and there is a title.
@@ -47,6 +66,27 @@ public class BookScreen extends BaseInteractionScreen {
     static boolean leftPageEditing = true;
     /* Index for finding which page number is opened */
     static Binding<Integer> index;
+    /* Page-level edits made since the last save, created for the version of the book they are based on */
+    private static final List<IntFunction<Event>> pendingEdits = new ArrayList<>();
+    /* The version of the book the next edit sent to the authority is based on */
+    private static int editVersion;
+    /* Pages changed since the last save; they are sent as a single edit, however often they were changed */
+    private static final SortedSet<Integer> dirtyPages = new TreeSet<>();
+    /* Seconds until the pending save is sent, negative if no save is pending */
+    private static float saveCountdown = -1;
+    /* Index of the open book for the find box, built on the first search and dropped when the book is edited */
+    private static PageSearchIndex searchIndex;
+    /* Terms of the last search, which are highlighted on the visible pages */
+    private static Set<String> highlightTerms = Collections.emptySet();
+    /* Chapters of the open book in page order, collected when the table of contents is first shown */
+    private static List<Chapter> tableOfContents;
+    /* Whether the table of contents is shown instead of the visible spread */
+    private static boolean showingContents;
+    /* Whether pages are inserted or deleted since opening the book, so that the indices of streamed pages do not match */
+    private static boolean structuralEditsPending;
+    /* Whether the pages of the open book are requested from the server; pages not received yet are null */
+    private static boolean streamed;
+    private static int streamVersion;
 
     private static final Logger logger = LoggerFactory.getLogger(BookScreen.class);
 
@@ -80,13 +120,64 @@ public class BookScreen extends BaseInteractionScreen {
     private static final String STATUS_READING = "Reading";
     private static final String STATUS_READ_ONLY = "Read-only";
 
+    /* Saves requested within this time are sent together */
+    private static final float SAVE_DEBOUNCE_SECONDS = 0.5f;
+
+    private static final String TEXT_COLOR = "198";
+    private static final String TEXT_COLOR_OPEN = "<c " + TEXT_COLOR + ">";
+    private static final String TEXT_COLOR_CLOSE = "</c>";
+
+    /* Hyperlinks to this prefix followed by a page number jump to that page, e.g. <h page:12>see here</h> */
+    private static final String PAGE_LINK_PREFIX = "page:";
+
+    /* Number of spreads before and after the visible one which are tokenized in the background */
+    private static int prefetchDepth = 1;
+
+    /* The size of the text area of a page, see bookScreen.ui */
+    private static final int PAGE_WIDTH = 350;
+    private static final int PAGE_HEIGHT = 345;
+
+    /* Number of characters of edits kept for undo, about 2 MB */
+    private static final int DEFAULT_UNDO_LIMIT = 1 << 20;
+    private static final BookEditJournal JOURNAL = new BookEditJournal(DEFAULT_UNDO_LIMIT);
+    private static final BookEditJournal.Editor JOURNAL_EDITOR = new BookEditJournal.Editor() {
+        @Override
+        public String getPage(int page) {
+            if (page < 0 || page >= pages.size() || pages.get(page) == null) {
+                return null;
+            }
+            return getPageText(page);
+        }
+
+        @Override
+        public boolean setPage(int page, String text) {
+            return BookScreen.setPage(page, text);
+        }
+
+        @Override
+        public boolean insertSpread(int page) {
+            return BookScreen.insertSpread(page);
+        }
+
+        @Override
+        public boolean deleteSpread(int page) {
+            return BookScreen.deleteSpread(page);
+        }
+    };
+
 
     @In
-    private static PrefabManager prefabManager;
+    private static BookPageCompilerSystem pageCompiler;
+    @In
+    private static BookPageStreamClientSystem pageStream;
     @In
     private NUIManager nuiManager;
     @In
     private LocalPlayer localPlayer;
+    @In
+    private BookEditPermissionSystem editPermission;
+    @In
+    private BookEditRejectionSystem editRejection;
 
     private String status;
     private UIButton save;
@@ -96,7 +187,11 @@ public class BookScreen extends BaseInteractionScreen {
     private UIButton deleteLeft;
     private UIButton deleteRight;
     private UIButton addPage;
+    private UIButton undo;
+    private UIButton redo;
     private UILabel statusText;
+    private UIText findText;
+    private UIText gotoText;
 
     public BookScreen() {
     }
@@ -105,46 +200,46 @@ public class BookScreen extends BaseInteractionScreen {
      * Returns a HTMLLike document for a given string
      */
     private static DocumentData createDocument(String text) {
-        DefaultDocumentData page = new DefaultDocumentData(null);
-        page.addParagraphs(createParagraphs(text));
-        return page;
-    }
-
-    /**
-     * Converts the Text into TextParagraphs and RecipeParagraphs
-     */
-    private static Collection<ParagraphData> createParagraphs(String text) {
-        Collection<ParagraphData> paragraphs = new ArrayList<ParagraphData>();
-        String inputText = text;
-        while (inputText.length() > 0) {
-            if (inputText.contains("<recipe")) {
-                int i = inputText.indexOf("<recipe");
-                paragraphs.add(createTextParagraph(inputText.substring(0, i)));
-                inputText = inputText.substring(i);
-                i = inputText.indexOf(">");
-                // Capture the text following the "<recipe" tag and remove spaces
-                String recipePrefabName = inputText.substring("<recipe".length(), i).replaceAll("\\s", "");
-                paragraphs.add(createRecipeParagraph(recipePrefabName));
-                inputText = inputText.substring(i + 1);
-            } else {
-                paragraphs.add(createTextParagraph(inputText));
-                inputText = "";
+        return createDocument(compilePage(text));
+    }
+
+    /**
+     * Creates the document of a visible page. Pages containing the terms of the current search are highlighted and,
+     * unlike all other pages, not cached.
+     */
+    private static DocumentData createVisibleDocument(String text) {
+        if (!highlightTerms.isEmpty()) {
+            boolean[] containsTerm = new boolean[1];
+            SearchTerms.forEachTerm(text, (term, start, end) -> containsTerm[0] |= highlightTerms.contains(term));
+            if (containsTerm[0]) {
+                return PageDocuments.createDocument(compilePage(text), highlightTerms, pageCompiler::resolveRecipe);
             }
         }
-        return paragraphs;
+        return pageCompiler.getDocumentCache().get(text, BookScreen::createDocument);
     }
 
-    private static ParagraphData createTextParagraph(String text) {
-        return HTMLLikeParser.parseHTMLLikeParagraph(null,
-                "<c 198>" + text.replace("\n", "<l>") + "</c>");
+    /**
+     * Tokenizes a page. Pages of book prefabs are compiled ahead of time by the {@link BookPageCompilerSystem},
+     * other pages are compiled here, leaving their recipes to be resolved when the page is shown.
+     * Safe to call on a worker thread, so that pages can be prefetched.
+     */
+    private static CompiledPage compilePage(String text) {
+        return PageDocuments.compilePage(text, pageCompiler::getCompiledPage);
     }
 
-    private static RecipeParagraph createRecipeParagraph(String prefabName) {
-        Prefab recipePrefab = prefabManager.getPrefab(prefabName);
-        BookRecipeComponent bookRecipeComponent = recipePrefab.getComponent(BookRecipeComponent.class);
-        return new RecipeParagraph(bookRecipeComponent.blockIngredients, bookRecipeComponent.blockIngredientsList,
-                bookRecipeComponent.itemIngredients, bookRecipeComponent.blockResult,
-                bookRecipeComponent.itemResult, bookRecipeComponent.resultCount);
+    /**
+     * Converts the tokens of a page into paragraphs. Unknown recipes are looked up only once, see
+     * {@link BookPageCompilerSystem#resolveRecipe(String)}. Must be called on the game thread.
+     */
+    private static DocumentData createDocument(CompiledPage compiledPage) {
+        return PageDocuments.createDocument(compiledPage, Collections.emptySet(), pageCompiler::resolveRecipe);
+    }
+
+    /**
+     * Creates the paragraph of a single token of a page, e.g. for the preview of the {@link PageEditor}.
+     */
+    static ParagraphData createParagraph(PageToken token) {
+        return PageDocuments.createParagraph(token, pageCompiler::resolveRecipe);
     }
 
     static State getState() {
@@ -167,10 +262,10 @@ public class BookScreen extends BaseInteractionScreen {
 
     static String getTextLeft() {
         if (getState().equals(State.OPEN_LEFT)) {
-            return pages.get(index.get());
+            return getPageText(index.get());
         }
         if (getState().equals(State.PAGES)) {
-            return pages.get(index.get());
+            return getPageText(index.get());
         }
 
         return "";
@@ -178,24 +273,333 @@ public class BookScreen extends BaseInteractionScreen {
 
     static String getTextRight() {
         if (getState().equals(State.OPEN_RIGHT)) {
-            return pages.get(index.get());
+            return getPageText(index.get());
         }
         if (getState().equals(State.PAGES)) {
-            return pages.get(index.get() + 1);
+            return getPageText(index.get() + 1);
         }
 
         return "";
     }
 
+    /**
+     * Gets the text of a page, which is empty while a streamed page has not been received yet.
+     * Compressed pages are decompressed the first time they are needed.
+     */
+    private static String getPageText(int pageIndex) {
+        String text = pages.get(pageIndex);
+        if (text == null) {
+            return "";
+        }
+        if (BookPages.isCompressed(text)) {
+            text = BookPages.decompress(text);
+            pages.set(pageIndex, text);
+        }
+        return text;
+    }
+
+    /**
+     * Checks whether the visible pages are available, i.e. they are not streamed pages still being requested.
+     */
+    private static boolean isSpreadLoaded() {
+        State state = getState();
+        int i = index.get();
+        boolean leftLoaded = !(state.equals(State.OPEN_LEFT) || state.equals(State.PAGES)) || pages.get(i) != null;
+        boolean rightLoaded = !state.equals(State.OPEN_RIGHT) && !state.equals(State.PAGES)
+                || pages.get(state.equals(State.PAGES) ? i + 1 : i) != null;
+        return leftLoaded && rightLoaded;
+    }
+
+    /**
+     * Replaces the text of a single page, dropping the cached document of the old text.
+     * The page is marked as dirty and sent to the authority on the next save, together with all other dirty pages.
+     *
+     * @param pageIndex The index of the page in {@link #pages}.
+     * @param text The new text of the page.
+     * @return False if the page could not be changed.
+     */
+    static boolean setPage(int pageIndex, String text) {
+        String oldText = pages.get(pageIndex);
+        if (text.equals(oldText)) {
+            return true;
+        }
+        if (!BookPages.setPage(pages, pageIndex, text)) {
+            return false;
+        }
+        if (oldText != null) {
+            pageCompiler.getDocumentCache().invalidate(oldText);
+        }
+        JOURNAL.recordSetPage(pageIndex, oldText != null ? BookPages.decompress(oldText) : "", text);
+        searchIndex = null;
+        tableOfContents = null;
+        dirtyPages.add(pageIndex);
+        return true;
+    }
+
+    /**
+     * Replaces the text of a page as the author edited it, moving text which does not fit to the following pages.
+     * Both are undone together.
+     *
+     * @param pageIndex The index of the page in {@link #pages}.
+     * @param text The new text of the page.
+     */
+    static void editPage(int pageIndex, String text) {
+        JOURNAL.startGroup();
+        try {
+            setPage(pageIndex, text);
+            reflowFrom(pageIndex);
+        } finally {
+            JOURNAL.endGroup();
+        }
+    }
+
+    /**
+     * Sets how many characters of edits are kept to be undone. The oldest edits are forgotten first.
+     *
+     * @param limit The maximum number of characters, roughly half the number of bytes used.
+     */
+    public static void setUndoLimit(int limit) {
+        JOURNAL.setMaxSize(Math.max(0, limit));
+    }
+
+    /**
+     * @return The maximum number of characters of edits kept to be undone.
+     */
+    public static int getUndoLimit() {
+        return JOURNAL.getMaxSize();
+    }
+
+    /**
+     * Moves the text which does not fit on a page to the following pages, adding pages after them if needed.
+     * Nothing happens while some pages of a streamed book have not been received yet.
+     *
+     * @param pageIndex The index of the page which has just been edited.
+     */
+    static void reflowFrom(int pageIndex) {
+        if (pages.contains(null)) {
+            return;
+        }
+        BookPaginator paginator = pageCompiler.getPaginator();
+        if (paginator == null) {
+            // Created when a page overflows for the first time, as it needs the font of the skin
+            UISkin skin = Assets.getSkin("Books:bookScreen").get();
+            paginator = new BookPaginator(skin.getDefaultStyle().getFont(), PAGE_WIDTH, PAGE_HEIGHT);
+            pageCompiler.setPaginator(paginator);
+        }
+        if (!paginator.overflows(getPageText(pageIndex))) {
+            return;
+        }
+        // Only the pages the reflow reaches are decompressed and paginated again
+        List<String> reflowedPages = new ArrayList<>();
+        int keptPage = paginator.reflow(BookScreen::getPageText, pages.size(), pageIndex, reflowedPages);
+        // The kept pages move by whole spreads, the pages in between are overwritten
+        int addedPages = pageIndex + reflowedPages.size() - keptPage;
+        for (; addedPages > 0; addedPages -= 2) {
+            insertSpread(keptPage);
+        }
+        for (; addedPages <= -2; addedPages += 2) {
+            deleteSpread(pageIndex + reflowedPages.size());
+        }
+        if (addedPages != 0) {
+            reflowedPages.add("");
+        }
+        for (int i = 0; i < reflowedPages.size(); i++) {
+            setPage(pageIndex + i, reflowedPages.get(i));
+        }
+    }
+
+    /**
+     * Inserts two empty pages. The edit is sent to the authority on the next save.
+     *
+     * @param pageIndex The index at which the first of the two new pages is inserted.
+     * @return False if the pages could not be inserted.
+     */
+    private static boolean insertSpread(int pageIndex) {
+        // The indices of dirty pages are about to move, so their changes have to be ordered before the insertion
+        flushDirtyPages();
+        if (!BookPages.insertSpread(pages, pageIndex)) {
+            return false;
+        }
+        JOURNAL.recordInsertSpread(pageIndex);
+        structuralEditsPending = true;
+        searchIndex = null;
+        tableOfContents = null;
+        pendingEdits.add(version -> new InsertBookSpreadEvent(version, pageIndex));
+        return true;
+    }
+
+    /**
+     * Deletes two consecutive pages. The edit is sent to the authority on the next save.
+     *
+     * @param pageIndex The index of the first of the two pages.
+     * @return False if the pages could not be deleted, e.g. as they have not been streamed yet.
+     */
+    private static boolean deleteSpread(int pageIndex) {
+        if (pageIndex < 0 || pageIndex + 1 >= pages.size()) {
+            return false;
+        }
+        String first = pages.get(pageIndex);
+        String second = pages.get(pageIndex + 1);
+        if (first == null || second == null) {
+            // Streamed pages which have not been received yet could not be restored
+            return false;
+        }
+        dirtyPages.remove(pageIndex);
+        dirtyPages.remove(pageIndex + 1);
+        flushDirtyPages();
+        if (!BookPages.deleteSpread(pages, pageIndex)) {
+            return false;
+        }
+        JOURNAL.recordDeleteSpread(pageIndex, BookPages.decompress(first), BookPages.decompress(second));
+        structuralEditsPending = true;
+        searchIndex = null;
+        tableOfContents = null;
+        pageCompiler.getDocumentCache().invalidate(first);
+        pageCompiler.getDocumentCache().invalidate(second);
+        pendingEdits.add(version -> new DeleteBookSpreadEvent(version, pageIndex));
+        return true;
+    }
+
+    /**
+     * Sets how many spreads before and after the visible one are tokenized in the background.
+     *
+     * @param depth The number of spreads in each direction; 0 disables prefetching.
+     */
+    public static void setPrefetchDepth(int depth) {
+        prefetchDepth = Math.max(0, depth);
+    }
+
+    /**
+     * Schedules the pages of the spreads around the visible one to be prepared in the background.
+     */
+    private static void prefetchAdjacentSpreads() {
+        if (prefetchDepth == 0) {
+            return;
+        }
+        int i = index.get();
+        int first = Math.max(0, i - 2 * prefetchDepth);
+        int last = Math.min(pages.size() - 1, i + 1 + 2 * prefetchDepth);
+        List<String> adjacentPages = new ArrayList<>();
+        for (int page = first; page <= last; page++) {
+            if (pages.get(page) != null) {
+                adjacentPages.add(getPageText(page));
+            }
+        }
+        // The visible pages have just been created and are cached, so the prefetcher skips them
+        pageCompiler.getPrefetcher().prefetch(adjacentPages);
+    }
+
+    /**
+     * Requests the streamed pages of the visible spread and the spreads around it which have not been received yet.
+     */
+    private static void requestMissingPages() {
+        if (!streamed || structuralEditsPending) {
+            return;
+        }
+        int i = index.get();
+        int first = Math.max(0, i - 2 * prefetchDepth);
+        int last = Math.min(pages.size() - 1, i + 1 + 2 * prefetchDepth);
+        while (first <= last && pages.get(first) != null) {
+            first++;
+        }
+        while (last >= first && pages.get(last) != null) {
+            last--;
+        }
+        if (first <= last) {
+            pageStream.requestPages(bookEntity, streamVersion, first, last);
+        }
+    }
+
+    /**
+     * Collects the chapters of the open book. Streamed pages which have not been received yet are left out.
+     */
+    private static List<Chapter> getTableOfContents() {
+        if (tableOfContents == null) {
+            List<Chapter> chapters = new ArrayList<>();
+            for (int i = 0; i < pages.size(); i++) {
+                if (pages.get(i) == null) {
+                    continue;
+                }
+                int page = i;
+                PageMarkupTokenizer.tokenize(getPageText(i), new PageMarkupTokenizer.TokenHandler() {
+                    @Override
+                    public void text(CharSequence source, int start, int end) {
+                    }
+
+                    @Override
+                    public void recipe(String prefabName, int start, int end) {
+                    }
+
+                    @Override
+                    public void chapter(String chapterTitle, int start, int end) {
+                        chapters.add(new Chapter(chapterTitle, page));
+                    }
+
+                    @Override
+                    public void malformedTag(String message, int position) {
+                    }
+                });
+            }
+            tableOfContents = chapters;
+        }
+        return tableOfContents;
+    }
+
+    /**
+     * Creates the document listing the chapters of the open book, each linking to the page it starts on.
+     * The titles are escaped, as they may contain characters such as {@code <} and {@code &}.
+     */
+    private static DocumentData createContentsDocument() {
+        List<Chapter> chapters = getTableOfContents();
+        StringBuilder markup = new StringBuilder(TEXT_COLOR_OPEN);
+        if (chapters.isEmpty()) {
+            markup.append("This book has no chapters.");
+        }
+        for (Chapter chapter : chapters) {
+            markup.append("<h ").append(PAGE_LINK_PREFIX).append(chapter.page + 1).append('>')
+                    .append(PageMarkup.escape(chapter.title)).append(" - ").append(chapter.page + 1).append("</h><l>");
+        }
+        markup.append(TEXT_COLOR_CLOSE);
+        DefaultDocumentData document = new DefaultDocumentData(null);
+        document.addParagraph(HTMLLikeParser.parseHTMLLikeParagraph(null, markup.toString()));
+        return document;
+    }
+
+    /**
+     * Opens the book at the spread containing a page, without turning the pages in between.
+     *
+     * @param page The index of the page, which is clamped to the pages of the book.
+     */
+    private static void goToPage(int page) {
+        showingContents = false;
+        index.set(getSpreadIndex(Math.max(0, Math.min(page, pages.size() - 1))));
+    }
+
     static void updatePage() {
+        long start = BookMetrics.start();
         pageLeft.bindTexture(BLANK);
         pageRight.bindTexture(BLANK);
         arrowForward.setVisible(true);
         arrowBackward.setVisible(true);
         title.setText("");
 
-        textLeft.navigateTo(createDocument(getTextLeft()));
-        textRight.navigateTo(createDocument(getTextRight()));
+        DocumentData leftDocument;
+        DocumentData rightDocument;
+        if (showingContents) {
+            // The contents take the place of the first visible page
+            boolean onRight = getState().equals(State.OPEN_RIGHT);
+            leftDocument = onRight ? createVisibleDocument("") : createContentsDocument();
+            rightDocument = onRight ? createContentsDocument() : createVisibleDocument("");
+        } else {
+            leftDocument = createVisibleDocument(getTextLeft());
+            rightDocument = createVisibleDocument(getTextRight());
+        }
+        long navigateStart = BookMetrics.start();
+        textLeft.navigateTo(leftDocument);
+        textRight.navigateTo(rightDocument);
+        BookMetrics.stop(BookMetrics.Metric.NAVIGATE, navigateStart);
+        requestMissingPages();
+        prefetchAdjacentSpreads();
 
         if (getState().equals(State.CLOSED_RIGHT)) {
             coverRight.bindTexture(COVER_FRONT_R);
@@ -232,6 +636,7 @@ public class BookScreen extends BaseInteractionScreen {
                 pageRight.bindTexture(PAGE_R);
             }
         }
+        BookMetrics.stop(BookMetrics.Metric.UPDATE_PAGE, start);
     }
 
     /**
@@ -276,16 +681,27 @@ public class BookScreen extends BaseInteractionScreen {
         save = find("save", UIButton.class);
         deleteLeft = find("deleteLeft", UIButton.class);
         addPage = find("addPage", UIButton.class);
+        undo = find("undo", UIButton.class);
+        redo = find("redo", UIButton.class);
         deleteRight = find("deleteRight", UIButton.class);
         statusText = find("status", UILabel.class);
+        findText = find("findText", UIText.class);
+        gotoText = find("gotoText", UIText.class);
+
+        pageStream.setPagesReceivedListener(this::onPagesReceived);
+        editRejection.setEditRejectedListener(this::onEditRejected);
+        textLeft.addBrowserHyperlinkListener(this::onHyperlinkClicked);
+        textRight.addBrowserHyperlinkListener(this::onHyperlinkClicked);
 
         WidgetUtil.trySubscribe(this, "forward", button -> {
+            showingContents = false;
             forward();
             updateEditingControls();
             updatePage();
         });
 
         WidgetUtil.trySubscribe(this, "backward", button -> {
+            showingContents = false;
             backward();
             updateEditingControls();
             updatePage();
@@ -305,11 +721,9 @@ public class BookScreen extends BaseInteractionScreen {
 
         deleteLeft.subscribe(button -> {
             if (getState().equals(State.PAGES)) {
-                pages.remove(index.get() - 1);
-                pages.remove(index.get() - 1);
+                deleteSpread(index.get() - 1);
             } else if (getState().equals(State.OPEN_LEFT)) {
-                pages.remove(index.get() - 1);
-                pages.remove(index.get() - 1);
+                deleteSpread(index.get() - 1);
             }
             index.set(Math.max(index.get() - 2, 0));
             updateEditingControls();
@@ -318,11 +732,9 @@ public class BookScreen extends BaseInteractionScreen {
 
         deleteRight.subscribe(button -> {
             if (getState().equals(State.PAGES)) {
-                pages.remove(index.get() + 1);
-                pages.remove(index.get() + 1);
+                deleteSpread(index.get() + 1);
             } else if (getState().equals(State.OPEN_RIGHT)) {
-                pages.remove(index.get().intValue());
-                pages.remove(index.get().intValue());
+                deleteSpread(index.get());
             }
             updateEditingControls();
             updatePage();
@@ -330,58 +742,306 @@ public class BookScreen extends BaseInteractionScreen {
 
         addPage.subscribe(button -> {
             if (getState().equals(State.OPEN_RIGHT)) {
-                pages.add(index.get(), "");
-                pages.add(index.get(), "");
+                insertSpread(index.get());
             } else if (getState().equals(State.OPEN_LEFT)) {
-                pages.add("");
-                pages.add("");
+                insertSpread(pages.size());
             } else if (getState().equals(State.PAGES)) {
-                pages.add(index.get() + 1, "");
-                pages.add(index.get() + 1, "");
+                insertSpread(index.get() + 1);
             }
             updateEditingControls();
             updatePage();
         });
 
-        save.subscribe(button -> {
-            book.pages = pages;
-            bookEntity.addOrSaveComponent(book);
+        save.subscribe(button -> requestSave());
+
+        // An edit which could not be replayed, e.g. as its pages have not been streamed yet, may still have been
+        // applied partly, so the book is refreshed either way
+        undo.subscribe(button -> {
+            if (JOURNAL.canUndo()) {
+                JOURNAL.undo(JOURNAL_EDITOR);
+                onJournalReplayed();
+            }
         });
+        redo.subscribe(button -> {
+            if (JOURNAL.canRedo()) {
+                JOURNAL.redo(JOURNAL_EDITOR);
+                onJournalReplayed();
+            }
+        });
+
+        WidgetUtil.trySubscribe(this, "find", button -> findNext());
+        findText.subscribe(widget -> findNext());
+
+        WidgetUtil.trySubscribe(this, "contents", button -> {
+            showingContents = !showingContents;
+            if (showingContents && (getState().equals(State.CLOSED_LEFT) || getState().equals(State.CLOSED_RIGHT))) {
+                index.set(0);
+            }
+            updateEditingControls();
+            updatePage();
+        });
+        WidgetUtil.trySubscribe(this, "goto", button -> goToEnteredPage());
+        gotoText.subscribe(widget -> goToEnteredPage());
+    }
+
+    /**
+     * Shows the book after an edit has been undone or redone, which may have removed the visible pages.
+     */
+    private void onJournalReplayed() {
+        // Setting the index again moves it back into the book if it is past the end now
+        index.set(index.get());
+        updateEditingControls();
+        updatePage();
+    }
+
+    /**
+     * Jumps to the page number entered into the go to box. Page numbers start at 1.
+     */
+    private void goToEnteredPage() {
+        try {
+            goToPage(Integer.parseInt(gotoText.getText().trim()) - 1);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        updateEditingControls();
+        updatePage();
+    }
+
+    /**
+     * Follows links to pages of the book, which are written as {@code <h page:N>text</h>}.
+     */
+    private void onHyperlinkClicked(String hyperlink) {
+        if (!hyperlink.startsWith(PAGE_LINK_PREFIX)) {
+            return;
+        }
+        try {
+            goToPage(Integer.parseInt(hyperlink.substring(PAGE_LINK_PREFIX.length()).trim()) - 1);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid page link '{}'", hyperlink);
+            return;
+        }
+        updateEditingControls();
+        updatePage();
+    }
+
+    /**
+     * Jumps to the next spread containing all words of the find box, wrapping around at the end of the book,
+     * and highlights the words on it.
+     */
+    private void findNext() {
+        List<String> terms = SearchTerms.parseQuery(findText.getText());
+        highlightTerms = new HashSet<>(terms);
+        if (terms.isEmpty()) {
+            updatePage();
+            return;
+        }
+        if (searchIndex == null) {
+            searchIndex = PageSearchIndex.build(pages.size(), page -> pages.get(page) != null ? getPageText(page) : null);
+        }
+        int[] matches = searchIndex.findPages(terms);
+        if (matches.length > 0) {
+            int lastVisiblePage = getState().equals(State.PAGES) ? index.get() + 1 : index.get();
+            int next = matches[0];
+            for (int page : matches) {
+                if (page > lastVisiblePage) {
+                    next = page;
+                    break;
+                }
+            }
+            goToPage(next);
+            updateEditingControls();
+        }
+        updatePage();
+    }
+
+    /**
+     * Gets the value of {@link #index} showing a page. The first page is shown on its own, on the right side;
+     * all other spreads start with an odd page on the left side.
+     *
+     * @param page The index of the page.
+     * @return The index of the spread containing the page.
+     */
+    static int getSpreadIndex(int page) {
+        if (page == 0 || page % 2 == 1) {
+            return page;
+        }
+        return page - 1;
+    }
+
+    /**
+     * Fills in streamed pages of the open book once they have been received.
+     * <br>
+     * When somebody else edited the book since it was opened, the pages shown are outdated and are requested again
+     * for the new version. Unsaved edits of the reader are kept instead, as saving them is rejected, which reloads
+     * the book anyway.
+     */
+    private void onPagesReceived(EntityRef receivedBook) {
+        if (!streamed || structuralEditsPending || !receivedBook.equals(bookEntity)) {
+            return;
+        }
+        int latestVersion = pageStream.getLatestVersion(bookEntity);
+        if (latestVersion > streamVersion) {
+            if (latestVersion <= editVersion) {
+                // Only the edits of the reader were applied since, so the pages shown are current
+                streamVersion = latestVersion;
+            } else if (pendingEdits.isEmpty() && dirtyPages.isEmpty()) {
+                reloadStreamedPages(latestVersion);
+            }
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.get(i) == null) {
+                pages.set(i, pageStream.getPage(bookEntity, streamVersion, i));
+            }
+        }
+        updateEditingControls();
+        updatePage();
+    }
+
+    /**
+     * Replaces the pages of the open book with the cached pages of a newer version. Pages which are not cached are
+     * requested when the visible spread is shown next.
+     */
+    private static void reloadStreamedPages(int version) {
+        BookComponent current = bookEntity.getComponent(BookComponent.class);
+        int pageCount = current != null ? current.pageCount : pages.size();
+        streamVersion = version;
+        editVersion = version;
+        pages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            pages.add(pageStream.getPage(bookEntity, version, i));
+        }
+        // The edits recorded so far are based on the old pages
+        JOURNAL.clear();
+        searchIndex = null;
+        tableOfContents = null;
+        index.set(Math.min(index.get(), pages.size()));
+    }
+
+    /**
+     * Shows the current pages of the open book after the authority rejected an edit of it. The edits which were not
+     * saved yet are dropped, as they are based on pages which are outdated now.
+     */
+    private void onEditRejected(EntityRef rejectedBook) {
+        if (!rejectedBook.equals(bookEntity)) {
+            return;
+        }
+        int page = index.get();
+        saveCountdown = -1;
+        initializeWithInteractionTarget(bookEntity);
+        index.set(Math.min(page, pages.size()));
+        updateEditingControls();
+        updatePage();
+    }
+
+    /**
+     * Turns the dirty pages into a single edit, so that all of them are saved at once.
+     */
+    private static void flushDirtyPages() {
+        if (dirtyPages.isEmpty()) {
+            return;
+        }
+        List<Integer> dirtyIndices = new ArrayList<>(dirtyPages);
+        List<String> texts = new ArrayList<>(dirtyIndices.size());
+        for (int pageIndex : dirtyIndices) {
+            texts.add(pages.get(pageIndex));
+        }
+        pendingEdits.add(version -> new SetBookPagesEvent(version, dirtyIndices, texts));
+        dirtyPages.clear();
+    }
+
+    /**
+     * Saves the book once no further save has been requested for {@link #SAVE_DEBOUNCE_SECONDS}.
+     */
+    private static void requestSave() {
+        saveCountdown = SAVE_DEBOUNCE_SECONDS;
+    }
+
+    @Override
+    public void update(float delta) {
+        super.update(delta);
+        if (saveCountdown >= 0) {
+            saveCountdown -= delta;
+            if (saveCountdown < 0) {
+                sendPendingEdits();
+            }
+        }
+    }
+
+    /**
+     * Sends the edits made since the last save to the authority, each based on the version the previous one results in.
+     */
+    private static void sendPendingEdits() {
+        long start = BookMetrics.start();
+        saveCountdown = -1;
+        flushDirtyPages();
+        for (IntFunction<Event> edit : pendingEdits) {
+            bookEntity.send(edit.apply(editVersion));
+            editVersion++;
+        }
+        pendingEdits.clear();
+        BookMetrics.stop(BookMetrics.Metric.SAVE, start);
     }
 
     /**
      * Sets the index to the default value. This ensures the book will open on the default page.
+     * Pages which are still being prepared in the background are discarded, a save which is still pending is sent.
+     * The edits can no longer be undone, so the journal lets go of them.
      */
     @Override
     public void onClosed() {
         super.onClosed();
+        if (saveCountdown >= 0) {
+            sendPendingEdits();
+        }
+        pageCompiler.getPrefetcher().cancel();
+        if (streamed) {
+            pageStream.cancelRequests(bookEntity);
+        }
+        streamed = false;
+        JOURNAL.clear();
+        bookEntity = EntityRef.NULL;
         index.set(-1);
     }
 
     @Override
     protected void initializeWithInteractionTarget(EntityRef interactionTarget) {
+        long start = BookMetrics.start();
         bookEntity = interactionTarget;
         book = interactionTarget.getComponent(BookComponent.class);
         setTint(book.tint);
 
-        pages = new ArrayList<>(book.pages);
+        streamed = pageStream.isStreamed(book);
+        streamVersion = book.version;
+        if (streamed) {
+            pages = new ArrayList<>(book.pageCount);
+            for (int i = 0; i < book.pageCount; i++) {
+                pages.add(pageStream.getPage(bookEntity, streamVersion, i));
+            }
+        } else {
+            pages = new ArrayList<>(book.pages);
+        }
+        pendingEdits.clear();
+        dirtyPages.clear();
+        JOURNAL.clear();
+        searchIndex = null;
+        highlightTerms = Collections.emptySet();
+        findText.setText("");
+        tableOfContents = null;
+        showingContents = false;
+        gotoText.setText("");
+        structuralEditsPending = false;
+        editVersion = book.version;
 
         initEditingControls();
         updateEditingControls();
         updatePage();
+        BookMetrics.stop(BookMetrics.Metric.OPEN_BOOK, start);
     }
 
     private void initEditingControls() {
-        boolean editBook = false;
         setEditable(false);
 
-        //check for item in inventory
-        EntityRef character = localPlayer.getCharacterEntity();
-        for (int i = 0; i < InventoryUtils.getSlotCount(character); i++) {
-            if (InventoryUtils.getItemAt(character, i).hasComponent(EditBooksComponent.class)) {
-                editBook = true;
-            }
-        }
+        boolean editBook = editPermission.canEditBooks(localPlayer.getCharacterEntity());
         if (editBook && !book.readOnly) {
             status = STATUS_EDITING;
         } else if (editBook && book.readOnly) {
@@ -425,6 +1085,8 @@ public class BookScreen extends BaseInteractionScreen {
         deleteLeft.setVisible(editable);
         addPage.setVisible(editable);
         deleteRight.setVisible(editable);
+        undo.setVisible(editable);
+        redo.setVisible(editable);
 
     }
 
@@ -442,6 +1104,10 @@ public class BookScreen extends BaseInteractionScreen {
                 deleteRight.setVisible(false);
                 deleteLeft.setVisible(false);
             }
+            if (!isSpreadLoaded()) {
+                editLeft.setVisible(false);
+                editRight.setVisible(false);
+            }
         } else {
             setEditable(false);
         }
@@ -453,31 +1119,6 @@ public class BookScreen extends BaseInteractionScreen {
         }
     }
 
-    private String buildPrefab() {
-        Joiner joiner = Joiner.on("\",\n                   \"");
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\n");
-        sb.append("    \"parent\": \"engine:iconItem\",\n");
-        sb.append("    \"Item\": {\n");
-        sb.append("        \"icon\": \"engine:items#brownBook\",\n");
-        sb.append("        \"usage\": \"NONE\"\n");
-        sb.append("    },\n");
-        sb.append("    \"DisplayName\": {\n");
-        sb.append("        \"name\": \"Book\"\n");
-        sb.append("    },\n");
-        sb.append("    \"Book\": {\n");
-        sb.append("        \"pages\": [\"");
-        sb.append(joiner.join(pages)).append("\"]\n");
-        sb.append("    },\n");
-        sb.append("    \"InteractionTarget\": {},\n");
-        sb.append("    \"InteractionScreen\": {\n");
-        sb.append("        \"screen\": \"Books:BookScreen\"\n");
-        sb.append("    }\n");
-        sb.append("}\n");
-
-        return sb.toString();
-    }
-
     private void forward() {
         if (getState().equals(State.PAGES)) {
             index.set(index.get() + 2);
@@ -494,6 +1135,19 @@ public class BookScreen extends BaseInteractionScreen {
         }
     }
 
+    /**
+     * An entry of the table of contents.
+     */
+    private static final class Chapter {
+        private final String title;
+        private final int page;
+
+        Chapter(String title, int page) {
+            this.title = title;
+            this.page = page;
+        }
+    }
+
     /**
      * A simple enumeration containing different states the book can be in.
      */
@@ -2,16 +2,36 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.books.rendering.nui.layers;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.books.CompiledPage;
+import org.terasology.books.DefaultDocumentData;
+import org.terasology.books.PageToken;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.rendering.nui.CoreScreenLayer;
 import org.terasology.engine.rendering.nui.NUIManager;
+import org.terasology.engine.rendering.nui.widgets.browser.data.ParagraphData;
+import org.terasology.engine.rendering.nui.widgets.browser.ui.BrowserWidget;
 import org.terasology.nui.widgets.UIButton;
 import org.terasology.nui.widgets.UIText;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
- * UI for editing pages.
+ * UI for editing pages, with a preview of the page next to the text.
+ * <br>
+ * The preview is updated once the author stops typing for a moment. Paragraphs whose text did not change are reused,
+ * so typing on a page with recipes does not create the recipes again. Half-typed tags are shown as they are typed,
+ * and if the text cannot be shown at all, the preview keeps showing the last text which could.
  */
 public class PageEditor extends CoreScreenLayer {
+    private static final Logger logger = LoggerFactory.getLogger(PageEditor.class);
+
+    /* Changes made within this time are shown in the preview together */
+    private static final float PREVIEW_DEBOUNCE_SECONDS = 0.3f;
 
     @In
     private NUIManager nuiManager;
@@ -19,6 +39,12 @@ public class PageEditor extends CoreScreenLayer {
     private UIText pageText;
     private UIButton save;
     private UIButton exit;
+    private BrowserWidget preview;
+
+    /* Seconds until the preview is updated, negative if it is up to date */
+    private float previewCountdown = -1;
+    /* The paragraphs of the preview by the token they show */
+    private Map<String, Deque<ParagraphData>> previewParagraphs = new HashMap<>();
 
     /**
      * Initializes the UI by attatching events to the save and exit buttons.
@@ -28,17 +54,20 @@ public class PageEditor extends CoreScreenLayer {
         pageText = find("pageText", UIText.class);
         save = find("save", UIButton.class);
         exit = find("exit", UIButton.class);
+        preview = find("preview", BrowserWidget.class);
+
+        pageText.subscribeTextChanged((oldText, newText) -> previewCountdown = PREVIEW_DEBOUNCE_SECONDS);
 
         save.subscribe(button -> {
             if (BookScreen.leftPageEditing) {
-                BookScreen.pages.set(BookScreen.index.get(), pageText.getText());
+                BookScreen.editPage(BookScreen.index.get(), pageText.getText());
                 BookScreen.updatePage();
                 nuiManager.closeScreen(this);
             } else {
                 if (BookScreen.getState().equals(BookScreen.State.OPEN_RIGHT)) {
-                    BookScreen.pages.set(BookScreen.index.get(), pageText.getText());
+                    BookScreen.editPage(BookScreen.index.get(), pageText.getText());
                 } else if (BookScreen.getState().equals(BookScreen.State.PAGES)) {
-                    BookScreen.pages.set(BookScreen.index.get() + 1, pageText.getText());
+                    BookScreen.editPage(BookScreen.index.get() + 1, pageText.getText());
                 }
                 BookScreen.updatePage();
                 nuiManager.closeScreen(this);
@@ -57,5 +86,44 @@ public class PageEditor extends CoreScreenLayer {
         } else {
             pageText.setText(BookScreen.getTextRight());
         }
+        previewParagraphs.clear();
+        updatePreview();
+    }
+
+    @Override
+    public void update(float delta) {
+        super.update(delta);
+        if (previewCountdown >= 0) {
+            previewCountdown -= delta;
+            if (previewCountdown < 0) {
+                updatePreview();
+            }
+        }
+    }
+
+    /**
+     * Shows the current text in the preview, creating paragraphs only for the tokens which were not shown before.
+     */
+    private void updatePreview() {
+        previewCountdown = -1;
+        String text = pageText.getText();
+        CompiledPage compiledPage = CompiledPage.compile(text, null, problem -> logger.debug("{} in page editor", problem));
+        Map<String, Deque<ParagraphData>> paragraphs = new HashMap<>();
+        DefaultDocumentData document = new DefaultDocumentData(null);
+        try {
+            for (PageToken token : compiledPage.getTokens()) {
+                String key = token.getType() + ":" + token.getValue();
+                Deque<ParagraphData> reusable = previewParagraphs.get(key);
+                ParagraphData paragraph = reusable != null && !reusable.isEmpty() ? reusable.poll() : BookScreen.createParagraph(token);
+                paragraphs.computeIfAbsent(key, k -> new ArrayDeque<>()).add(paragraph);
+                document.addParagraph(paragraph);
+            }
+        } catch (IllegalArgumentException e) {
+            // Keep the last preview until the author has finished typing whatever the parser does not understand
+            logger.debug("Cannot preview page: {}", e.getMessage());
+            return;
+        }
+        previewParagraphs = paragraphs;
+        preview.navigateTo(document);
     }
 }
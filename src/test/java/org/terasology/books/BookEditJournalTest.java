@@ -0,0 +1,181 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookEditJournalTest {
+    private static final int MAX_SIZE = 1 << 20;
+
+    private BookEditJournal journal;
+    private Book book;
+
+    @BeforeEach
+    public void setup() {
+        journal = new BookEditJournal(MAX_SIZE);
+        book = new Book("first page", "second page");
+    }
+
+    @Test
+    public void testUndoAndRedoSetPage() {
+        book.setPage(0, "first edited page");
+
+        assertTrue(journal.undo(book));
+        assertEquals(Arrays.asList("first page", "second page"), book.pages);
+        assertTrue(journal.redo(book));
+        assertEquals(Arrays.asList("first edited page", "second page"), book.pages);
+    }
+
+    @Test
+    public void testOnlyChangedTextIsKept() {
+        String page = "a very long page which barely changes";
+        book.setPage(0, page);
+        long size = journal.size();
+        book.setPage(0, page + "!");
+
+        assertTrue(journal.size() - size < page.length());
+        journal.undo(book);
+        assertEquals(page, book.pages.get(0));
+    }
+
+    @Test
+    public void testUndoAndRedoSpreads() {
+        book.insertSpread(2);
+        book.setPage(2, "third page");
+        book.deleteSpread(0);
+        assertEquals(Arrays.asList("third page", ""), book.pages);
+
+        journal.undo(book);
+        assertEquals(Arrays.asList("first page", "second page", "third page", ""), book.pages);
+        journal.undo(book);
+        journal.undo(book);
+        assertEquals(Arrays.asList("first page", "second page"), book.pages);
+        assertFalse(journal.canUndo());
+
+        journal.redo(book);
+        journal.redo(book);
+        journal.redo(book);
+        assertEquals(Arrays.asList("third page", ""), book.pages);
+        assertFalse(journal.canRedo());
+    }
+
+    @Test
+    public void testGroupIsUndoneTogether() {
+        journal.startGroup();
+        book.setPage(0, "first");
+        book.setPage(1, "page second page");
+        journal.endGroup();
+
+        journal.undo(book);
+        assertEquals(Arrays.asList("first page", "second page"), book.pages);
+        assertFalse(journal.canUndo());
+    }
+
+    @Test
+    public void testNewEditDropsRedo() {
+        book.setPage(0, "edited");
+        journal.undo(book);
+        assertTrue(journal.canRedo());
+
+        book.setPage(1, "other edit");
+        assertFalse(journal.canRedo());
+    }
+
+    @Test
+    public void testOldestEditsAreForgotten() {
+        journal.setMaxSize(100);
+        for (int i = 0; i < 10; i++) {
+            book.setPage(0, "edit number " + i + " of the first page, long enough to take up some room");
+        }
+
+        assertTrue(journal.size() <= 100);
+        int undone = 0;
+        while (journal.undo(book)) {
+            undone++;
+        }
+        assertTrue(undone > 0 && undone < 10);
+        assertTrue(book.pages.get(0).startsWith("edit number "));
+    }
+
+    @Test
+    public void testClear() {
+        book.setPage(0, "edited");
+        journal.clear();
+        assertFalse(journal.canUndo());
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    public void testFailedUndoClearsJournal() {
+        book.setPage(0, "edited");
+        book.insertSpread(2);
+        BookEditJournal.Editor missingPages = new Book() {
+            @Override
+            public boolean deleteSpread(int page) {
+                return false;
+            }
+        };
+
+        assertFalse(journal.undo(missingPages));
+        assertFalse(journal.canUndo());
+        assertFalse(journal.canRedo());
+    }
+
+    @Test
+    public void testUndoOfChangedPageFails() {
+        book.setPage(0, "first edited page");
+        book.pages.set(0, "changed elsewhere");
+
+        assertFalse(journal.undo(book));
+        assertEquals("changed elsewhere", book.pages.get(0));
+        assertFalse(journal.canRedo());
+    }
+
+    /**
+     * A book which records its edits in the journal, as the book screen does.
+     */
+    private class Book implements BookEditJournal.Editor {
+        private final List<String> pages;
+
+        Book(String... pages) {
+            this.pages = new ArrayList<>(Arrays.asList(pages));
+        }
+
+        @Override
+        public String getPage(int page) {
+            return pages.get(page);
+        }
+
+        @Override
+        public boolean setPage(int page, String text) {
+            journal.recordSetPage(page, pages.get(page), text);
+            pages.set(page, text);
+            return true;
+        }
+
+        @Override
+        public boolean insertSpread(int page) {
+            journal.recordInsertSpread(page);
+            pages.add(page, "");
+            pages.add(page, "");
+            return true;
+        }
+
+        @Override
+        public boolean deleteSpread(int page) {
+            journal.recordDeleteSpread(page, pages.get(page), pages.get(page + 1));
+            pages.remove(page);
+            pages.remove(page);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.nui.asset.font.Font;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookPaginatorTest {
+    /* Every character is 10 wide and every line 10 high, so a page holds 3 lines of 5 characters */
+    private static final int CHAR_WIDTH = 10;
+    private static final int LINE_HEIGHT = 10;
+
+    private BookPaginator paginator;
+
+    @BeforeEach
+    public void setup() {
+        Font font = mock(Font.class);
+        when(font.getWidth(any(Character.class))).thenReturn(CHAR_WIDTH);
+        when(font.getLineHeight()).thenReturn(LINE_HEIGHT);
+        paginator = new BookPaginator(font, 5 * CHAR_WIDTH, 3 * LINE_HEIGHT);
+    }
+
+    @Test
+    public void testPaginateWrapsAtSpaces() {
+        List<String> pages = paginator.paginate("aaaa bbbb cccc dddd");
+        assertEquals(Arrays.asList("aaaa bbbb cccc ", "dddd"), pages);
+    }
+
+    @Test
+    public void testPaginateKeepsEvenPageCount() {
+        assertEquals(Arrays.asList("", ""), paginator.paginate(""));
+        assertEquals(2, paginator.paginate("aaaa").size());
+    }
+
+    @Test
+    public void testOverflows() {
+        assertFalse(paginator.overflows("aaaa\nbbbb\ncccc"));
+        assertTrue(paginator.overflows("aaaa\nbbbb\ncccc\ndddd"));
+    }
+
+    @Test
+    public void testTagsTakeNoSpace() {
+        assertFalse(paginator.overflows("<c 112233>aaaaa</c>\nbbbbb\nccccc"));
+    }
+
+    @Test
+    public void testLessThanWhichIsNoTagIsMeasured() {
+        // Read as a tag, "<b a<b a" would take up no space and the text would fit on two lines
+        assertTrue(paginator.overflows("a<b a<b a<b a<b"));
+    }
+
+    @Test
+    public void testColorIsClosedAndOpenedAgainAcrossPages() {
+        List<String> pages = paginator.paginate("aaaa bbbb <c 112233>cccc dddd</c> eeee");
+        assertEquals("aaaa bbbb <c 112233>cccc </c>", pages.get(0));
+        assertEquals("<c 112233>dddd</c> eeee", pages.get(1));
+    }
+
+    @Test
+    public void testColorEndsWithItsRun() {
+        // The color is closed where its run ends anyway, and is not opened again after the recipe
+        List<String> pages = paginator.paginate("<c 112233>aaaa bbbb <recipe Books:pickaxe>cccc");
+        assertEquals(Arrays.asList("<c 112233>aaaa bbbb ", "<recipe Books:pickaxe>", "cccc", ""), pages);
+    }
+
+    @Test
+    public void testReflowKeepsEndOfOldPageAsLineBreak() {
+        List<String> pages = paginator.reflow(Arrays.asList("aaaa\nbbbb\ncccc\ndddd", "Next", "", ""), 0);
+        assertEquals(Arrays.asList("aaaa\nbbbb\ncccc\n", "dddd\nNext", "", ""), pages);
+    }
+
+    @Test
+    public void testReflowStopsAtAlignedPage() {
+        List<String> pages = paginator.reflow(Arrays.asList("aaaa\nbbbb\ncccc", "Next\nxx\nyy", "zz", ""), 0);
+        assertEquals(Arrays.asList("aaaa\nbbbb\ncccc", "Next\nxx\nyy", "zz", ""), pages);
+    }
+
+    @Test
+    public void testReflowOnlyReadsPagesItReaches() {
+        List<String> pages = Arrays.asList("aaaa\nbbbb\ncccc\ndddd", "Next\nmore", "xx\nyy\nzz", "Last", "", "");
+        List<Integer> readPages = new ArrayList<>();
+        List<String> newPages = new ArrayList<>();
+        int keptPage = paginator.reflow(page -> {
+            readPages.add(page);
+            return pages.get(page);
+        }, pages.size(), 0, newPages);
+
+        assertEquals(Arrays.asList("aaaa\nbbbb\ncccc\n", "dddd\nNext\nmore"), newPages);
+        assertEquals(2, keptPage);
+        assertEquals(Arrays.asList(0, 1, 2), readPages);
+    }
+
+    @Test
+    public void testRecipeHeight() {
+        Font font = mock(Font.class);
+        when(font.getWidth(any(Character.class))).thenReturn(CHAR_WIDTH);
+        when(font.getLineHeight()).thenReturn(LINE_HEIGHT);
+        BookPaginator tallPaginator = new BookPaginator(font, 5 * CHAR_WIDTH, 2 * LINE_HEIGHT + RecipeParagraph.HEIGHT);
+
+        assertFalse(tallPaginator.overflows("aaaa\nbbbb\n<recipe Books:pickaxe>"));
+        List<String> pages = tallPaginator.paginate("aaaa\nbbbb\ncccc\n<recipe Books:pickaxe>");
+        assertEquals(Arrays.asList("aaaa\nbbbb\ncccc\n", "<recipe Books:pickaxe>"), pages);
+    }
+}
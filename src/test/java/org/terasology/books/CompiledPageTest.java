@@ -0,0 +1,44 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledPageTest {
+    @Test
+    public void testUnknownRecipeIsResolvedOnce() {
+        List<String> problems = new ArrayList<>();
+        int[] lookups = new int[1];
+        CompiledPage page = CompiledPage.compile("before<recipe Books:missing>after", name -> {
+            lookups[0]++;
+            return null;
+        }, problems::add);
+
+        assertEquals(3, page.getTokens().size());
+        PageToken recipe = page.getTokens().get(1);
+        assertEquals(PageToken.Type.RECIPE, recipe.getType());
+        assertEquals("Books:missing", recipe.getValue());
+        assertTrue(recipe.isResolved());
+        assertNull(recipe.getRecipe());
+        assertEquals(1, lookups[0]);
+        assertEquals(1, problems.size());
+    }
+
+    @Test
+    public void testRecipesAreNotResolvedWithoutResolver() {
+        List<String> problems = new ArrayList<>();
+        CompiledPage page = CompiledPage.compile("<recipe Books:missing>", null, problems::add);
+
+        PageToken recipe = page.getTokens().get(0);
+        assertFalse(recipe.isResolved());
+        assertTrue(problems.isEmpty());
+    }
+}
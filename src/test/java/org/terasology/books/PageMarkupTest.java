@@ -0,0 +1,108 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.rendering.nui.widgets.browser.data.basic.HTMLLikeParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class PageMarkupTest {
+    private static final String TEXT = "1";
+    private static final String HIGHLIGHT = "2";
+
+    @Test
+    public void testPlainText() {
+        assertEquals("<c 1>first<l>second</c>", PageMarkup.format("first\nsecond", TEXT, Collections.emptyList(), HIGHLIGHT));
+    }
+
+    @Test
+    public void testHighlight() {
+        List<int[]> highlights = Collections.singletonList(new int[]{4, 7});
+        assertEquals("<c 1>the </c><c 2>end</c><c 1>.</c>", PageMarkup.format("the end.", TEXT, highlights, HIGHLIGHT));
+    }
+
+    @Test
+    public void testHighlightReopensNestedColors() {
+        String text = "<c ff>a <c 00>word</c> b</c>";
+        List<int[]> highlights = Collections.singletonList(new int[]{14, 18});
+        assertEquals("<c 1><c ff>a <c 00></c></c></c><c 2>word</c><c 1><c ff><c 00></c> b</c></c>",
+                PageMarkup.format(text, TEXT, highlights, HIGHLIGHT));
+    }
+
+    @Test
+    public void testHighlightSkipsTags() {
+        // The highlight covers "x <c ff>y", the tag has to stay outside of it
+        String text = "x <c ff>y</c>";
+        List<int[]> highlights = Collections.singletonList(new int[]{0, 9});
+        assertEquals("<c 1></c><c 2>x </c><c 1><c ff></c></c><c 2>y</c><c 1><c ff></c></c>",
+                PageMarkup.format(text, TEXT, highlights, HIGHLIGHT));
+    }
+
+    @Test
+    public void testHighlightWithinLink() {
+        String text = "<h page:2>go</h>";
+        List<int[]> highlights = Collections.singletonList(new int[]{10, 12});
+        assertEquals("<c 1><h page:2></h></c><c 2>go</c><c 1><h page:2></h></c>",
+                PageMarkup.format(text, TEXT, highlights, HIGHLIGHT));
+    }
+
+    @Test
+    public void testTermAfterLessThanIsFoundAndHighlighted() {
+        // The find box looks the terms up in the index and highlights them where SearchTerms finds them
+        String text = "3 < 5 apples";
+        PageSearchIndex index = PageSearchIndex.build(2, page -> page == 0 ? "pears" : text);
+        assertArrayEquals(new int[]{1}, index.findPages(Collections.singletonList("apples")));
+
+        List<int[]> highlights = new ArrayList<>();
+        SearchTerms.forEachTerm(text, (term, start, end) -> {
+            if (term.equals("apples")) {
+                highlights.add(new int[]{start, end});
+            }
+        });
+        assertEquals("<c 1>3 &lt; 5 </c><c 2>apples</c><c 1></c>", PageMarkup.format(text, TEXT, highlights, HIGHLIGHT));
+    }
+
+    @Test
+    public void testMalformedRecipeTagRenders() {
+        List<String> problems = new ArrayList<>();
+        CompiledPage page = CompiledPage.compile("see <recipe here", null, problems::add);
+        assertEquals(1, problems.size());
+        assertEquals(1, page.getTokens().size());
+        String markup = PageMarkup.format(page.getTokens().get(0).getValue(), TEXT, Collections.emptyList(), HIGHLIGHT);
+        assertEquals("<c 1>see &lt;recipe here</c>", markup);
+        assertNotNull(HTMLLikeParser.parseHTMLLikeParagraph(null, markup));
+    }
+
+    @Test
+    public void testUnbalancedTagsRender() {
+        String markup = PageMarkup.format("a </c> b <c ff>c <h x>d", TEXT, Collections.emptyList(), HIGHLIGHT);
+        assertEquals("<c 1>a &lt;/c&gt; b <c ff>c <h x>d</h></c></c>", markup);
+        assertNotNull(HTMLLikeParser.parseHTMLLikeParagraph(null, markup));
+    }
+
+    @Test
+    public void testEntities() {
+        assertEquals("<c 1>1 &amp; 2 &lt; 3 &gt; 4</c>",
+                PageMarkup.format("1 & 2 &lt; 3 > 4", TEXT, Collections.emptyList(), HIGHLIGHT));
+        assertEquals("a&lt;b&gt;&amp;c", PageMarkup.escape("a<b>&c"));
+    }
+
+    @Test
+    public void testTagLength() {
+        assertEquals(3, PageMarkup.getTagLength("<l>", 0));
+        assertEquals(6, PageMarkup.getTagLength("<c ff>", 0));
+        assertEquals(4, PageMarkup.getTagLength("a</c>", 1));
+        assertEquals(10, PageMarkup.getTagLength("<h page:2>", 0));
+        assertEquals(0, PageMarkup.getTagLength("<c>", 0));
+        assertEquals(0, PageMarkup.getTagLength("<c zz>", 0));
+        assertEquals(0, PageMarkup.getTagLength("<h >", 0));
+        assertEquals(0, PageMarkup.getTagLength("1 < 2", 2));
+    }
+}
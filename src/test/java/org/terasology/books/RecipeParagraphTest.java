@@ -0,0 +1,78 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.joml.Vector2i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.rendering.nui.widgets.browser.data.basic.flow.ContainerRenderSpace;
+import org.terasology.joml.geom.Rectanglei;
+import org.terasology.nui.Canvas;
+import org.terasology.nui.HorizontalAlign;
+import org.terasology.nui.UIWidget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RecipeParagraphTest {
+    private static final int INGREDIENTS = 4;
+    private static final int PAGE_WIDTH = 350;
+
+    private final Vector2i startPos = new Vector2i(0, 10);
+    private RecipeParagraph paragraph;
+
+    @BeforeEach
+    public void setup() {
+        List<Prefab> ingredients = new ArrayList<>();
+        for (int i = 0; i < INGREDIENTS; i++) {
+            ingredients.add(createItemPrefab());
+        }
+        paragraph = new RecipeParagraph(INGREDIENTS, Collections.emptyList(), ingredients, null, createItemPrefab(), 1);
+    }
+
+    @Test
+    public void testLayout() {
+        assertEquals(RecipeParagraph.HEIGHT, paragraph.getPreferredContentsHeight(null, 0, null, 0));
+        assertSame(paragraph.getParagraphRenderStyle(), paragraph.getParagraphRenderStyle());
+    }
+
+    @Test
+    public void testRenderReusesRegion() {
+        Canvas canvas = mock(Canvas.class);
+        ContainerRenderSpace renderSpace = mock(ContainerRenderSpace.class);
+        when(renderSpace.getWidthForVerticalPosition(anyInt())).thenReturn(PAGE_WIDTH);
+
+        render(canvas, renderSpace);
+        render(canvas, renderSpace);
+
+        ArgumentCaptor<Rectanglei> regions = ArgumentCaptor.forClass(Rectanglei.class);
+        verify(canvas, atLeastOnce()).drawWidget(any(UIWidget.class), regions.capture());
+        assertEquals(2 * (INGREDIENTS + 1), regions.getAllValues().size());
+        for (Rectanglei region : regions.getAllValues()) {
+            assertSame(regions.getAllValues().get(0), region);
+        }
+    }
+
+    private void render(Canvas canvas, ContainerRenderSpace renderSpace) {
+        paragraph.renderContents(canvas, startPos, renderSpace, 0, 0, null, HorizontalAlign.CENTER, null);
+    }
+
+    private static Prefab createItemPrefab() {
+        Prefab prefab = mock(Prefab.class);
+        when(prefab.getComponent(ItemComponent.class)).thenReturn(new ItemComponent());
+        return prefab;
+    }
+}
@@ -0,0 +1,49 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchTermsTest {
+    @Test
+    public void testTermsAreLowerCase() {
+        assertEquals(Arrays.asList("iron", "pickaxe", "2"), terms("Iron Pickaxe, 2"));
+    }
+
+    @Test
+    public void testTagsAreSkipped() {
+        assertEquals(Arrays.asList("red", "link", "after"),
+                terms("<c ff0000>red</c><l><h page:2>link</h><recipe Books:pickaxe><chapter Title>after"));
+    }
+
+    @Test
+    public void testLessThanWhichIsNoTagIsText() {
+        assertEquals(Arrays.asList("3", "5", "apples", "b", "a"), terms("3 < 5 apples <b a"));
+    }
+
+    @Test
+    public void testMalformedRecipeTagIsText() {
+        assertEquals(Arrays.asList("recipe", "recipe", "apples"), terms("<recipe <recipe> apples"));
+    }
+
+    @Test
+    public void testTermPositions() {
+        List<int[]> positions = new ArrayList<>();
+        SearchTerms.forEachTerm("1 < apples", (term, start, end) -> positions.add(new int[] {start, end}));
+        assertEquals(2, positions.size());
+        assertEquals(4, positions.get(1)[0]);
+        assertEquals(10, positions.get(1)[1]);
+    }
+
+    private static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        SearchTerms.forEachTerm(text, (term, start, end) -> terms.add(term));
+        return terms;
+    }
+}
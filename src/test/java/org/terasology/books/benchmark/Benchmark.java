@@ -0,0 +1,105 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A minimal benchmark harness for the benchmarks of this module, which are plain programs run from the test classpath.
+ * <br>
+ * Every operation is first run until the JIT has compiled it, then timed in several rounds. The median time of an
+ * operation is reported, as single rounds are easily disturbed by garbage collection. Allocations are measured with
+ * the allocation counter of the current thread, where the JVM has one.
+ */
+public final class Benchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    /* Roughly how long every round runs */
+    private static final long ROUND_NANOS = 200_000_000L;
+    /* Runs of an operation before and while its allocations are measured */
+    private static final int ALLOCATION_WARMUP_RUNS = 20_000;
+    private static final int ALLOCATION_RUNS = 10_000;
+
+    /* Receives the results of operations, so that the JIT cannot drop them */
+    private static volatile Object sink;
+
+    private Benchmark() {
+    }
+
+    /**
+     * Operation to measure. It returns its result, so that the result is not optimized away.
+     */
+    public interface Operation {
+        Object run();
+    }
+
+    /**
+     * Measures an operation and prints its median time.
+     *
+     * @param name The name of the operation in the report.
+     * @param operation The operation.
+     * @return The median time of a single run of the operation in nanoseconds.
+     */
+    public static double measure(String name, Operation operation) {
+        int runsPerRound = calibrate(operation);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runRound(operation, runsPerRound);
+        }
+        double[] nanosPerRun = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            nanosPerRun[i] = (double) runRound(operation, runsPerRound) / runsPerRound;
+        }
+        Arrays.sort(nanosPerRun);
+        double median = nanosPerRun[ROUNDS / 2];
+        System.out.println(String.format(Locale.ROOT, "%-50s %12.1f ns/op (min %.1f, max %.1f)",
+                name, median, nanosPerRun[0], nanosPerRun[ROUNDS - 1]));
+        return median;
+    }
+
+    /**
+     * Measures how many bytes an operation allocates and prints them.
+     *
+     * @param name The name of the operation in the report.
+     * @param operation The operation.
+     * @return The bytes allocated by a single run of the operation, or -1 if the JVM does not count allocations.
+     */
+    public static double measureAllocation(String name, Operation operation) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println(String.format(Locale.ROOT, "%-50s %12s", name, "allocations not counted"));
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            System.out.println(String.format(Locale.ROOT, "%-50s %12s", name, "allocations not counted"));
+            return -1;
+        }
+        runRound(operation, ALLOCATION_WARMUP_RUNS);
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        runRound(operation, ALLOCATION_RUNS);
+        double bytesPerRun = (double) (threads.getThreadAllocatedBytes(threadId) - before) / ALLOCATION_RUNS;
+        System.out.println(String.format(Locale.ROOT, "%-50s %12.1f B/op", name, bytesPerRun));
+        return bytesPerRun;
+    }
+
+    /**
+     * Finds the number of runs which take about {@link #ROUND_NANOS}.
+     */
+    private static int calibrate(Operation operation) {
+        int runs = 1;
+        while (runs < Integer.MAX_VALUE / 2 && runRound(operation, runs) < ROUND_NANOS / 10) {
+            runs *= 2;
+        }
+        return Math.max(1, (int) Math.min(Integer.MAX_VALUE, runs * 10L));
+    }
+
+    private static long runRound(Operation operation, int runs) {
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink = operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,19 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+/**
+ * Runs all benchmarks of this module, see the Performance section of the readme.
+ */
+public final class BooksBenchmarks {
+    private BooksBenchmarks() {
+    }
+
+    public static void main(String[] args) {
+        PageDocumentBenchmark.main(args);
+        RecipeParagraphBenchmark.main(args);
+        CopyFromBenchmark.main(args);
+        FilterBookBenchmark.main(args);
+        PageCompressionBenchmark.main(args);
+    }
+}
@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import org.terasology.books.logic.BookComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures copying books, which happens whenever a book component is added to an entity, e.g. for every book created
+ * from a prefab.
+ */
+public final class CopyFromBenchmark {
+    private static final int[] PAGE_COUNTS = {2, 100, 1000};
+    private static final int PAGE_LENGTH = 2048;
+
+    private CopyFromBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int pageCount : PAGE_COUNTS) {
+            BookComponent original = createBook(pageCount);
+            Benchmark.measure("copy book of " + pageCount + " pages", () -> {
+                BookComponent copy = new BookComponent();
+                copy.copyFrom(original);
+                return copy;
+            });
+            // A copy of a copy shares the pages of the original, which is the common case for prefab books
+            BookComponent copy = new BookComponent();
+            copy.copyFrom(original);
+            Benchmark.measure("copy shared book of " + pageCount + " pages", () -> {
+                BookComponent secondCopy = new BookComponent();
+                secondCopy.copyFrom(copy);
+                return secondCopy;
+            });
+        }
+    }
+
+    private static BookComponent createBook(int pageCount) {
+        List<String> pages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            pages.add(SamplePages.create(PAGE_LENGTH, i, null));
+        }
+        BookComponent book = new BookComponent();
+        book.title = "Benchmark";
+        book.pages = pages;
+        book.pageCount = pageCount;
+        return book;
+    }
+}
@@ -0,0 +1,45 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import org.terasology.books.logic.BookComponent;
+import org.terasology.books.logic.BookcaseSystem;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.module.inventory.events.BeforeItemPutInInventory;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures checking items which are put into a bookcase, which happens for every item moved into one.
+ * <br>
+ * The items are mocks standing in for the entities of a running game. Looking up a component of a mock is slower than
+ * looking it up on a real entity, so the time of the lookup alone is reported as well.
+ */
+public final class FilterBookBenchmark {
+    private FilterBookBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        BookcaseSystem bookcaseSystem = new BookcaseSystem();
+        EntityRef bookcase = mock(EntityRef.class);
+        EntityRef book = createItem(true);
+        EntityRef other = createItem(false);
+
+        Benchmark.measure("component lookup of the stand-in", () -> book.hasComponent(BookComponent.class));
+        Benchmark.measure("filter book", () -> filter(bookcaseSystem, bookcase, book));
+        Benchmark.measure("filter other item", () -> filter(bookcaseSystem, bookcase, other));
+    }
+
+    private static EntityRef createItem(boolean isBook) {
+        EntityRef item = mock(EntityRef.class);
+        when(item.hasComponent(BookComponent.class)).thenReturn(isBook);
+        return item;
+    }
+
+    private static boolean filter(BookcaseSystem bookcaseSystem, EntityRef bookcase, EntityRef item) {
+        BeforeItemPutInInventory event = new BeforeItemPutInInventory(EntityRef.NULL, item, 0);
+        bookcaseSystem.filterBook(event, bookcase);
+        return event.isConsumed();
+    }
+}
@@ -0,0 +1,34 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import org.terasology.books.logic.BookPages;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Measures how much compressing pages saves and how long reading a compressed page takes, see {@link BookPages}.
+ * <br>
+ * The ratio compares the size of a page as it is replicated, in UTF-8, with and without compression.
+ */
+public final class PageCompressionBenchmark {
+    private static final int[] PAGE_LENGTHS = {1024, BookPages.COMPRESSION_THRESHOLD, 16384, 65536};
+
+    private PageCompressionBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int length : PAGE_LENGTHS) {
+            String text = SamplePages.create(length, length, "Books:pickaxe");
+            String compressed = BookPages.compress(text);
+            int textBytes = text.getBytes(StandardCharsets.UTF_8).length;
+            int compressedBytes = compressed.getBytes(StandardCharsets.UTF_8).length;
+            System.out.println(String.format(Locale.ROOT, "%-50s %12.2f (%d of %d bytes)",
+                    "compression ratio " + length + " chars", (double) compressedBytes / textBytes,
+                    compressedBytes, textBytes));
+            Benchmark.measure("compress " + length + " chars", () -> BookPages.compress(text));
+            Benchmark.measure("decompress " + length + " chars", () -> BookPages.decompress(compressed));
+        }
+    }
+}
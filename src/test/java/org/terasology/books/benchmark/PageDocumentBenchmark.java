@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import org.terasology.books.CompiledPage;
+import org.terasology.books.PageDocuments;
+import org.terasology.books.logic.BookRecipeComponent;
+import org.terasology.engine.rendering.nui.widgets.browser.data.DocumentData;
+
+import java.util.Collections;
+
+/**
+ * Measures how long it takes to turn the text of a page into a document, as the book screen does when a page is shown:
+ * compiling it into tokens with {@link PageDocuments#compilePage} and creating the paragraphs of the tokens with
+ * {@link PageDocuments#createDocument}.
+ * <br>
+ * No page is compiled ahead of time and no recipe is found, so recipes are shown as their placeholder text. Their
+ * paragraphs are measured by {@link RecipeParagraphBenchmark}.
+ */
+public final class PageDocumentBenchmark {
+    private static final int[] PAGE_LENGTHS = {512, 2048, 8192};
+
+    private PageDocumentBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int length : PAGE_LENGTHS) {
+            String text = SamplePages.create(length, length, "Books:pickaxe");
+            CompiledPage page = compile(text);
+            Benchmark.measure("compile " + length + " chars", () -> compile(text));
+            Benchmark.measure("create paragraphs " + length + " chars", () -> createDocument(page));
+            Benchmark.measure("create document " + length + " chars", () -> createDocument(compile(text)));
+        }
+    }
+
+    private static CompiledPage compile(String text) {
+        return PageDocuments.compilePage(text, PageDocumentBenchmark::compiledNothing);
+    }
+
+    private static DocumentData createDocument(CompiledPage page) {
+        return PageDocuments.createDocument(page, Collections.emptySet(), PageDocumentBenchmark::resolveNothing);
+    }
+
+    private static CompiledPage compiledNothing(String text) {
+        return null;
+    }
+
+    private static BookRecipeComponent resolveNothing(String prefabName) {
+        return null;
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import org.joml.Vector2i;
+import org.terasology.books.RecipeParagraph;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.rendering.nui.widgets.browser.data.basic.flow.ContainerRenderSpace;
+import org.terasology.joml.geom.Rectanglei;
+import org.terasology.module.inventory.ui.ItemIcon;
+import org.terasology.nui.Canvas;
+import org.terasology.nui.HorizontalAlign;
+import org.terasology.nui.UIWidget;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures creating recipe paragraphs and laying them out, as done for every recipe of a page which is shown.
+ * <br>
+ * The ingredients are item prefabs without icons, standing in for the prefabs of a running game. Their icons are
+ * cached by the IngredientIconCache after the first run, as they are in the game.
+ * <br>
+ * Laying out and rendering should not allocate. Rendering draws through a mocked canvas, and mocks allocate while
+ * they are called, so the allocations of calling the mocks as often as rendering does are reported alongside.
+ */
+public final class RecipeParagraphBenchmark {
+    private static final int[] INGREDIENT_COUNTS = {1, 4};
+    private static final int PAGE_WIDTH = 350;
+
+    private RecipeParagraphBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        for (int ingredientCount : INGREDIENT_COUNTS) {
+            List<Prefab> ingredients = new ArrayList<>();
+            for (int i = 0; i < ingredientCount; i++) {
+                ingredients.add(createItemPrefab());
+            }
+            Prefab result = createItemPrefab();
+            RecipeParagraph paragraph = create(ingredients, result);
+            Benchmark.measure("create recipe of " + ingredientCount + " ingredients", () -> create(ingredients, result));
+            Benchmark.measure("lay out recipe of " + ingredientCount + " ingredients", () -> layout(paragraph));
+            Benchmark.measureAllocation("lay out recipe of " + ingredientCount + " ingredients", () -> layout(paragraph));
+            measureRenderAllocation(paragraph, ingredientCount);
+        }
+    }
+
+    private static void measureRenderAllocation(RecipeParagraph paragraph, int ingredientCount) {
+        Canvas canvas = mock(Canvas.class, withSettings().stubOnly());
+        ContainerRenderSpace renderSpace = mock(ContainerRenderSpace.class, withSettings().stubOnly());
+        when(renderSpace.getWidthForVerticalPosition(anyInt())).thenReturn(PAGE_WIDTH);
+        Vector2i startPos = new Vector2i(0, 10);
+        UIWidget icon = new ItemIcon();
+        Rectanglei region = new Rectanglei();
+
+        Benchmark.measureAllocation("render recipe of " + ingredientCount + " ingredients", () -> {
+            paragraph.renderContents(canvas, startPos, renderSpace, 0, 0, null, HorizontalAlign.CENTER, null);
+            return canvas;
+        });
+        Benchmark.measureAllocation("call mocks as rendering " + ingredientCount + " ingredients does", () -> {
+            renderSpace.getWidthForVerticalPosition(0);
+            for (int i = 0; i < ingredientCount + 1; i++) {
+                canvas.drawWidget(icon, region);
+            }
+            return canvas;
+        });
+    }
+
+    private static int layout(RecipeParagraph paragraph) {
+        paragraph.getParagraphRenderStyle();
+        return paragraph.getPreferredContentsHeight(null, 0, null, 0) + paragraph.getContentsMinWidth(null);
+    }
+
+    /**
+     * @return A prefab of an item without an icon.
+     */
+    static Prefab createItemPrefab() {
+        Prefab prefab = mock(Prefab.class);
+        when(prefab.getComponent(ItemComponent.class)).thenReturn(new ItemComponent());
+        return prefab;
+    }
+
+    static RecipeParagraph create(List<Prefab> ingredients, Prefab result) {
+        return new RecipeParagraph(ingredients.size(), Collections.emptyList(), ingredients, null, result, 1);
+    }
+}
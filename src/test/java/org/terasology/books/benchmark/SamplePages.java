@@ -0,0 +1,59 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.benchmark;
+
+import java.util.Random;
+
+/**
+ * Creates page text which looks like the books players write: sentences of common words with the occasional line
+ * break, color, chapter and recipe.
+ */
+public final class SamplePages {
+    private static final String[] WORDS = {
+        "the", "of", "and", "to", "in", "a", "is", "that", "for", "it", "as", "was", "with", "be", "by", "on", "not",
+        "he", "this", "are", "or", "his", "from", "at", "which", "but", "have", "an", "had", "they", "you", "were",
+        "stone", "iron", "pickaxe", "village", "north", "river", "tower", "bookcase", "chest", "torch", "night",
+        "mountain", "forest", "library", "merchant", "journey", "ancient", "treasure", "underground", "cavern"
+    };
+
+    private SamplePages() {
+    }
+
+    /**
+     * Creates the text of a page.
+     *
+     * @param length The number of characters of the page, roughly.
+     * @param seed Selects the text; the same seed always gives the same page.
+     * @param recipe The name of a recipe prefab to insert into the page, or null for text only.
+     * @return The text of the page.
+     */
+    public static String create(int length, long seed, String recipe) {
+        Random random = new Random(seed);
+        StringBuilder page = new StringBuilder(length + 64);
+        page.append("<chapter Chapter ").append(seed).append(">");
+        while (page.length() < length) {
+            int sentenceLength = 5 + random.nextInt(15);
+            for (int i = 0; i < sentenceLength; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                if (i == 0) {
+                    page.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+                } else if (random.nextInt(40) == 0) {
+                    page.append("<c ff0000>").append(word).append("</c>");
+                } else {
+                    page.append(word);
+                }
+                page.append(i < sentenceLength - 1 ? ' ' : '.');
+            }
+            if (random.nextInt(4) == 0) {
+                page.append('\n');
+            } else {
+                page.append(' ');
+            }
+            if (recipe != null && random.nextInt(20) == 0) {
+                page.append("<recipe ").append(recipe).append(">");
+                recipe = null;
+            }
+        }
+        return page.toString();
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BookPageStoreTest {
+    private static final int COPIES = 10;
+
+    @Test
+    public void testEqualPagesAreStoredOnce() {
+        List<String> first = BookPageStore.share(Arrays.asList(new String("page one"), new String("page two")));
+        List<String> second = BookPageStore.share(Arrays.asList(new String("page one"), new String("page three")));
+
+        assertEquals(Arrays.asList("page one", "page two"), first);
+        assertSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    public void testSharedListIsReturnedAsIs() {
+        List<String> shared = BookPageStore.share(Arrays.asList("a", "b"));
+        assertSame(shared, BookPageStore.share(shared));
+    }
+
+    @Test
+    public void testSharedListIsImmutable() {
+        List<String> shared = BookPageStore.share(new ArrayList<>(Arrays.asList("a", "b")));
+        assertThrows(UnsupportedOperationException.class, () -> shared.set(0, "c"));
+    }
+
+    @Test
+    public void testCopyFromSharesPages() {
+        BookComponent original = new BookComponent();
+        original.pages = Arrays.asList("a", "b");
+        BookComponent copy = new BookComponent();
+        copy.copyFrom(original);
+        BookComponent copyOfCopy = new BookComponent();
+        copyOfCopy.copyFrom(copy);
+
+        assertEquals(original.pages, copy.pages);
+        assertSame(copy.pages, copyOfCopy.pages);
+    }
+
+    /**
+     * Loads several copies of a book, as happens when a world with many copies of a few books is loaded: every copy
+     * reads its own instance of every page, and the store keeps only the first one.
+     */
+    @Test
+    public void testLoadedCopiesShareEveryPage() {
+        List<String> template = Arrays.asList("page one", "page two", "page three", "");
+        List<String> first = BookPageStore.share(load(template));
+        for (int copy = 0; copy < COPIES; copy++) {
+            List<String> loaded = load(template);
+            List<String> shared = BookPageStore.share(loaded);
+            assertEquals(template, shared);
+            for (int page = 0; page < template.size(); page++) {
+                assertNotSame(loaded.get(page), shared.get(page));
+                assertSame(first.get(page), shared.get(page));
+            }
+        }
+    }
+
+    @Test
+    public void testNullPageIsRejected() {
+        assertThrows(NullPointerException.class, () -> BookPageStore.share(Arrays.asList("a", null)));
+    }
+
+    /**
+     * @return New instances of the pages, as deserializing a book creates them.
+     */
+    private static List<String> load(List<String> pages) {
+        List<String> loaded = new ArrayList<>(pages.size());
+        for (String page : pages) {
+            loaded.add(new String(page.toCharArray()));
+        }
+        return loaded;
+    }
+}
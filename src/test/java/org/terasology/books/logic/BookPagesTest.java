@@ -0,0 +1,88 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookPagesTest {
+    @Test
+    public void testRoundTrip() {
+        String text = "Chapter one\n<c ff0000>Red</c> text, umlauts äöü and symbols ✓ ☃ 𝄞";
+        String compressed = BookPages.compress(text);
+        assertTrue(BookPages.isCompressed(compressed));
+        assertEquals(text, BookPages.decompress(compressed));
+    }
+
+    @Test
+    public void testRoundTripOfEmptyPage() {
+        assertEquals("", BookPages.decompress(BookPages.compress("")));
+    }
+
+    @Test
+    public void testLongPagesAreCompressed() {
+        String text = String.join(" ", Collections.nCopies(BookPages.COMPRESSION_THRESHOLD / 4, "word"));
+        BookComponent book = new BookComponent();
+
+        String stored = BookPages.store(book, text);
+        assertTrue(BookPages.isCompressed(stored));
+        assertTrue(stored.length() < text.length() / 10);
+        assertEquals(text, BookPages.decompress(stored));
+    }
+
+    @Test
+    public void testShortPagesAreKept() {
+        BookComponent book = new BookComponent();
+        String text = "A short page";
+        assertSame(text, BookPages.store(book, text));
+        assertFalse(BookPages.isCompressed(text));
+        assertSame(text, BookPages.decompress(text));
+    }
+
+    @Test
+    public void testBookCanAskForCompression() {
+        BookComponent book = new BookComponent();
+        book.compressPages = true;
+        String stored = BookPages.store(book, "A short page");
+        assertTrue(BookPages.isCompressed(stored));
+        assertEquals("A short page", BookPages.decompress(stored));
+    }
+
+    @Test
+    public void testCompressedPagesAreNotCompressedAgain() {
+        BookComponent book = new BookComponent();
+        book.compressPages = true;
+        String stored = BookPages.store(book, "A short page");
+        assertSame(stored, BookPages.store(book, stored));
+    }
+
+    @Test
+    public void testCorruptPageIsEmpty() {
+        String compressed = BookPages.compress("Some text which is long enough to be cut off");
+        assertEquals("", BookPages.decompress(compressed.substring(0, compressed.length() / 2)));
+        assertEquals("", BookPages.decompress(compressed.charAt(0) + "not base64!"));
+    }
+
+    @Test
+    public void testSpreads() {
+        List<String> pages = new ArrayList<>(Arrays.asList("a", "b"));
+        assertTrue(BookPages.insertSpread(pages, 2));
+        assertTrue(BookPages.setPage(pages, 3, "d"));
+        assertEquals(Arrays.asList("a", "b", "", "d"), pages);
+        assertFalse(BookPages.setPage(pages, 4, "e"));
+        assertFalse(BookPages.insertSpread(pages, 5));
+
+        assertTrue(BookPages.deleteSpread(pages, 0));
+        assertEquals(Arrays.asList("", "d"), pages);
+        assertFalse(BookPages.deleteSpread(pages, 0));
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.InventorySlotChangedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BookcaseCatalogSystemTest {
+    private final Map<Long, EntityRef> entities = new HashMap<>();
+
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private BookcaseCatalogSystem catalog;
+
+    @BeforeEach
+    public void setup() {
+        when(entityManager.getEntity(anyLong())).thenAnswer(invocation -> entities.get(invocation.<Long>getArgument(0)));
+    }
+
+    @Test
+    public void testSwapBooks() {
+        EntityRef first = createBook(10, "First");
+        EntityRef second = createBook(11, "Second");
+        EntityRef bookcase = createBookcase(1, new Vector3f(), first, second);
+
+        // The inventory changes one slot at a time, so the second book is in both slots in between
+        setSlot(bookcase, 0, first, second);
+        setSlot(bookcase, 1, second, first);
+
+        assertEquals(1, catalog.findBook("First").size());
+        assertEquals(1, catalog.findBook("Second").size());
+        assertEquals(2, catalog.findBooksNear(new Vector3f(), 4).size());
+    }
+
+    @Test
+    public void testMoveBookBetweenSlots() {
+        EntityRef book = createBook(10, "Book");
+        EntityRef bookcase = createBookcase(1, new Vector3f(), book, EntityRef.NULL);
+
+        setSlot(bookcase, 1, EntityRef.NULL, book);
+        setSlot(bookcase, 0, book, EntityRef.NULL);
+
+        assertEquals(1, catalog.findBook("Book").size());
+        assertEquals(1, catalog.findBooksNear(new Vector3f(), 4).size());
+    }
+
+    @Test
+    public void testMoveBookBetweenBookcases() {
+        EntityRef book = createBook(10, "Book");
+        EntityRef from = createBookcase(1, new Vector3f(), book);
+        EntityRef to = createBookcase(2, new Vector3f(100, 0, 0), EntityRef.NULL);
+
+        setSlot(to, 0, EntityRef.NULL, book);
+        setSlot(from, 0, book, EntityRef.NULL);
+
+        assertEquals(1, catalog.findBook("Book").size());
+        assertEquals(to, catalog.findBook("Book").get(0).getBookcase());
+        assertEquals(0, catalog.findBooksNear(new Vector3f(), 4).size());
+    }
+
+    @Test
+    public void testRemoveBook() {
+        EntityRef book = createBook(10, "Book");
+        EntityRef bookcase = createBookcase(1, new Vector3f(), book);
+
+        setSlot(bookcase, 0, book, EntityRef.NULL);
+
+        assertEquals(0, catalog.findBook("Book").size());
+        assertEquals(0, catalog.findBooksNear(new Vector3f(), 4).size());
+    }
+
+    private EntityRef createBook(long id, String title) {
+        BookComponent book = new BookComponent();
+        book.title = title;
+        EntityRef entity = createEntity(id);
+        when(entity.exists()).thenReturn(true);
+        when(entity.hasComponent(BookComponent.class)).thenReturn(true);
+        when(entity.getComponent(BookComponent.class)).thenReturn(book);
+        return entity;
+    }
+
+    private EntityRef createBookcase(long id, Vector3f position, EntityRef... items) {
+        EntityRef entity = createEntity(id);
+        LocationComponent location = new LocationComponent();
+        location.setWorldPosition(position);
+        InventoryComponent inventory = new InventoryComponent(items.length);
+        for (int i = 0; i < items.length; i++) {
+            inventory.itemSlots.set(i, items[i]);
+        }
+        catalog.onBookcaseActivated(OnActivatedComponent.newInstance(), entity, location, inventory);
+        return entity;
+    }
+
+    private EntityRef createEntity(long id) {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getId()).thenReturn(id);
+        entities.put(id, entity);
+        return entity;
+    }
+
+    private void setSlot(EntityRef bookcase, int slot, EntityRef oldItem, EntityRef newItem) {
+        catalog.onBookcaseSlotChanged(new InventorySlotChangedEvent(slot, oldItem, newItem), bookcase);
+    }
+}
@@ -0,0 +1,96 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.inventory.events.DropItemEvent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.world.block.entity.CreateBlockDropsEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookcaseDropSystemTest {
+    /* Must match the budget of BookcaseDropSystem */
+    private static final int DROPS_PER_TICK = 32;
+    private static final int BOOKCASES = 100;
+    private static final int BOOKS_PER_BOOKCASE = 30;
+
+    private final BookcaseDropSystem dropSystem = new BookcaseDropSystem();
+    private int drops;
+
+    @BeforeEach
+    public void setup() {
+        drops = 0;
+    }
+
+    @Test
+    public void testBooksOfDestroyedBookcaseAreDropped() {
+        InventoryComponent inventory = destroyBookcase(new Vector3f(1, 2, 3), 3);
+        assertTrue(inventory.itemSlots.isEmpty());
+        assertEquals(0, drops);
+
+        dropSystem.update(0);
+        assertEquals(3, drops);
+    }
+
+    @Test
+    public void testPendingBooksAreDroppedBeforeSaving() {
+        destroyBookcase(new Vector3f(), BOOKS_PER_BOOKCASE * 2);
+        dropSystem.preSave();
+        assertEquals(BOOKS_PER_BOOKCASE * 2, drops);
+    }
+
+    /**
+     * Destroys many full bookcases at once, as an explosion in a library does. No tick may drop more than its budget,
+     * however many books are waiting.
+     */
+    @Test
+    public void testDestroyingManyBookcasesSpreadsDropsOverTicks() {
+        for (int i = 0; i < BOOKCASES; i++) {
+            destroyBookcase(new Vector3f(i, 0, 0), BOOKS_PER_BOOKCASE);
+        }
+        assertEquals(0, drops);
+
+        int books = BOOKCASES * BOOKS_PER_BOOKCASE;
+        int ticks = 0;
+        while (drops < books) {
+            int dropsBefore = drops;
+            dropSystem.update(0);
+            ticks++;
+            assertTrue(drops - dropsBefore <= DROPS_PER_TICK, "Tick " + ticks + " dropped " + (drops - dropsBefore) + " books");
+            assertTrue(drops > dropsBefore, "Tick " + ticks + " dropped nothing");
+        }
+        assertEquals((books + DROPS_PER_TICK - 1) / DROPS_PER_TICK, ticks);
+    }
+
+    private InventoryComponent destroyBookcase(Vector3f position, int books) {
+        EntityRef bookcase = mock(EntityRef.class);
+        LocationComponent location = new LocationComponent();
+        location.setWorldPosition(position);
+        InventoryComponent inventory = new InventoryComponent(books);
+        for (int i = 0; i < books; i++) {
+            inventory.itemSlots.set(i, createBook());
+        }
+        dropSystem.onDestroyBookCase(mock(CreateBlockDropsEvent.class), bookcase, location, inventory);
+        return inventory;
+    }
+
+    private EntityRef createBook() {
+        EntityRef item = mock(EntityRef.class);
+        when(item.exists()).thenReturn(true);
+        when(item.hasComponent(BookComponent.class)).thenReturn(true);
+        when(item.send(any(DropItemEvent.class))).thenAnswer(invocation -> {
+            drops++;
+            return invocation.getArgument(0);
+        });
+        return item;
+    }
+}
@@ -0,0 +1,35 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.module.inventory.events.BeforeItemPutInInventory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BookcaseSystemTest {
+    private final BookcaseSystem bookcaseSystem = new BookcaseSystem();
+
+    @Test
+    public void testOnlyBooksArePutIntoBookcases() {
+        EntityRef bookcase = mock(EntityRef.class);
+        BeforeItemPutInInventory book = new BeforeItemPutInInventory(EntityRef.NULL, createItem(true), 0);
+        BeforeItemPutInInventory other = new BeforeItemPutInInventory(EntityRef.NULL, createItem(false), 0);
+
+        bookcaseSystem.filterBook(book, bookcase);
+        bookcaseSystem.filterBook(other, bookcase);
+
+        assertFalse(book.isConsumed());
+        assertTrue(other.isConsumed());
+    }
+
+    private static EntityRef createItem(boolean isBook) {
+        EntityRef item = mock(EntityRef.class);
+        when(item.hasComponent(BookComponent.class)).thenReturn(isBook);
+        return item;
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.books.logic;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongPostingsTest {
+    @Test
+    public void testValuesAreSorted() {
+        LongPostings postings = postingsOf(5, 1, 4, 2, 3);
+        assertEquals(5, postings.size());
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, sortedValues(postings));
+    }
+
+    @Test
+    public void testRemove() {
+        LongPostings postings = postingsOf(5, 1, 4, 2, 3);
+        postings.remove(4);
+        postings.remove(6);
+        assertEquals(4, postings.size());
+        assertFalse(postings.contains(4));
+        assertTrue(postings.contains(5));
+        assertArrayEquals(new long[]{1, 2, 3, 5}, sortedValues(postings));
+    }
+
+    @Test
+    public void testRemoveAndAddAgain() {
+        LongPostings postings = postingsOf(1, 2, 3, 4, 5, 6);
+        postings.remove(6);
+        postings.add(6);
+        postings.remove(6);
+        assertEquals(5, postings.size());
+        assertFalse(postings.contains(6));
+        postings.add(6);
+        assertTrue(postings.contains(6));
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6}, sortedValues(postings));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        int count = 10000;
+        LongPostings postings = new LongPostings("term");
+        for (int i = count - 1; i >= 0; i--) {
+            postings.add(i);
+        }
+        for (int i = 0; i < count; i += 2) {
+            postings.remove(i);
+        }
+        assertEquals(count / 2, postings.size());
+        for (int i = 1; i < count; i += 2) {
+            postings.remove(i);
+        }
+        assertTrue(postings.isEmpty());
+    }
+
+    private static LongPostings postingsOf(long... values) {
+        LongPostings postings = new LongPostings("term");
+        for (long value : values) {
+            postings.add(value);
+        }
+        return postings;
+    }
+
+    private static long[] sortedValues(LongPostings postings) {
+        return Arrays.copyOf(postings.sortedValues(), postings.size());
+    }
+}